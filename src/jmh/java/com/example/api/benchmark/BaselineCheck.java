@@ -0,0 +1,82 @@
+package com.example.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result with the committed baseline and exits with status 1 when a benchmark
+ * got slower than the tolerance, beyond the error margins of both runs. All benchmarks report
+ * average time, so a higher score is worse. A baseline whose error margin exceeds its score could
+ * never show a regression, so it fails the check too and has to be measured again.
+ */
+public class BaselineCheck {
+
+    private static final double DEFAULT_TOLERANCE = 0.25;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <result.json> [tolerance]");
+            System.exit(2);
+        }
+        var baseline = read(new File(args[0]));
+        var current = read(new File(args[1]));
+        var tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+
+        var noisy = 0;
+        for (var entry : baseline.entrySet()) {
+            if (entry.getValue().error() > entry.getValue().score()) {
+                noisy++;
+                System.out.printf("NOISY      %s %.3f +/- %.3f %s%n", entry.getKey(),
+                        entry.getValue().score(), entry.getValue().error(), entry.getValue().unit());
+            }
+        }
+
+        var regressions = 0;
+        for (var entry : current.entrySet()) {
+            var before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s %.3f %s%n", entry.getKey(), entry.getValue().score(), entry.getValue().unit());
+                continue;
+            }
+            var after = entry.getValue();
+            var change = (after.score() - before.score()) / before.score();
+            var regressed = change > tolerance && after.score() - after.error() > before.score() + before.error();
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s %.3f -> %.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "OK", entry.getKey(),
+                    before.score(), after.score(), after.unit(), change * 100);
+        }
+        if (noisy > 0) {
+            System.err.printf("%d baseline benchmark(s) have an error larger than their score%n", noisy);
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed more than %.0f%%%n", regressions, tolerance * 100);
+        }
+        if (noisy > 0 || regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        var scores = new LinkedHashMap<String, Score>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            var metric = result.get("primaryMetric");
+            var error = metric.get("scoreError").asDouble();
+            scores.put(result.get("benchmark").asText(), new Score(
+                    metric.get("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private record Score(double score, double error, String unit) {
+    }
+}
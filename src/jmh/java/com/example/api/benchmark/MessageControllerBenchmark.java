@@ -0,0 +1,110 @@
+package com.example.api.benchmark;
+
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.controller.MessageController;
+import com.example.api.count.CountMode;
+import com.example.api.dto.MessageSummary;
+import com.example.api.ingest.MessageIngestionQueue;
+import com.example.api.model.Message;
+import com.example.api.service.MessageService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Measures request mapping, argument binding and JSON conversion in front of a stubbed service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class MessageControllerBenchmark {
+
+    private static final String MESSAGE_JSON = "{ \"username\": \"John\", \"content\": \"Hello, World!\" }";
+
+    private MockMvc mockMvc;
+
+    private UUID messageId;
+
+    @Setup
+    public void setup() {
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var timestamp = LocalDateTime.now();
+        var message = Message.builder()
+                .id(UUID.randomUUID())
+                .username("John")
+                .content("Hello, World!")
+                .createdAt(timestamp)
+                .updatedAt(timestamp)
+                .build();
+        messageId = message.getId();
+
+        // Stub-only mocks keep no record of their invocations, which would otherwise pile up in the heap
+        var messageService = Mockito.mock(MessageService.class, withSettings().stubOnly());
+        when(messageService.getMessage(messageId)).thenReturn(message);
+        when(messageService.registerMessage(any(Message.class))).thenReturn(message);
+        when(messageService.listMessages(any(Pageable.class), any(CountMode.class))).thenReturn(new PageImpl<>(
+                Collections.nCopies(10, MessageSummary.of(message)), PageRequest.of(0, 10), 100));
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new MessageController(
+                        messageService,
+                        new MessageBatchProperties(500, 10000),
+                        objectMapper,
+                        Mockito.mock(MessageIngestionQueue.class, withSettings().stubOnly())))
+                .setMessageConverters(
+                        new StringHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getMessage() throws Exception {
+        return mockMvc.perform(get("/messages/{id}", messageId)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse registerMessage() throws Exception {
+        return mockMvc.perform(post("/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MESSAGE_JSON))
+                .andReturn()
+                .getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse listMessages() throws Exception {
+        return mockMvc.perform(get("/messages")).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.api.benchmark;
+
+import com.example.api.config.CborConfig;
+import com.example.api.dto.MessagePage;
+import com.example.api.dto.MessageSummary;
+import com.example.api.model.Message;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class MessageSerializationBenchmark {
+
+    private ObjectWriter messageWriter;
+
+    private ObjectReader messageReader;
+
+    private ObjectWriter pageWriter;
+
+    private Message message;
+
+    private byte[] messageJson;
+
+    private MessagePage page;
+
+    private ObjectWriter cborMessageWriter;
+
+    private ObjectReader cborMessageReader;
+
+    private ObjectWriter cborPageWriter;
+
+    private byte[] messageCbor;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        messageWriter = objectMapper.writerFor(Message.class);
+        messageReader = objectMapper.readerFor(Message.class);
+        pageWriter = objectMapper.writerFor(MessagePage.class);
+
+        var timestamp = LocalDateTime.of(2023, 1, 15, 0, 1, 0, 100_000_000);
+        message = Message.builder()
+                .id(UUID.randomUUID())
+                .username("John")
+                .content("Hello, World!")
+                .createdAt(timestamp)
+                .updatedAt(timestamp)
+                .likeCount(42)
+                .build();
+        messageJson = messageWriter.writeValueAsBytes(message);
+
+        var content = new ArrayList<MessageSummary>();
+        for (int i = 0; i < 10; i++) {
+            content.add(MessageSummary.of(message));
+        }
+        page = new MessagePage(content, 0, 10, 1000, 100, false);
+
+        // Configured like the application's CBOR converter
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        cborMapper.registerModule(CborConfig.epochMillisModule(ZoneId.systemDefault()));
+        cborMessageWriter = cborMapper.writerFor(Message.class);
+        cborMessageReader = cborMapper.readerFor(Message.class);
+        cborPageWriter = cborMapper.writerFor(MessagePage.class);
+        messageCbor = cborMessageWriter.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] serializeMessage() throws Exception {
+        return messageWriter.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public Message deserializeMessage() throws Exception {
+        return messageReader.readValue(messageJson);
+    }
+
+    @Benchmark
+    public byte[] serializeMessagePage() throws Exception {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeMessageCbor() throws Exception {
+        return cborMessageWriter.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public Message deserializeMessageCbor() throws Exception {
+        return cborMessageReader.readValue(messageCbor);
+    }
+
+    @Benchmark
+    public byte[] serializeMessagePageCbor() throws Exception {
+        return cborPageWriter.writeValueAsBytes(page);
+    }
+}
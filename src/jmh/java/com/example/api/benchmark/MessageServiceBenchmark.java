@@ -0,0 +1,94 @@
+package com.example.api.benchmark;
+
+import com.example.api.Api;
+import com.example.api.dto.MessagePage;
+import com.example.api.dto.MessageSlice;
+import com.example.api.model.Message;
+import com.example.api.service.MessageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the real service, cache and repository stack against the in-memory H2 database of the
+ * test profile, seeded with {@code SEED_MESSAGES} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class MessageServiceBenchmark {
+
+    private static final int SEED_MESSAGES = 1000;
+
+    private ConfigurableApplicationContext context;
+
+    private MessageService messageService;
+
+    private UUID messageId;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Api.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        messageService = context.getBean(MessageService.class);
+        for (int i = 0; i < SEED_MESSAGES; i++) {
+            messageService.registerMessage(newMessage());
+        }
+        messageId = messageService.registerMessage(newMessage()).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private static Message newMessage() {
+        return Message.builder()
+                .username("John")
+                .content("Hello, World!")
+                .build();
+    }
+
+    @Benchmark
+    public Message registerMessage() {
+        return messageService.registerMessage(newMessage());
+    }
+
+    @Benchmark
+    public Message getMessage() {
+        return messageService.getMessage(messageId);
+    }
+
+    @Benchmark
+    public MessagePage listMessages() {
+        return MessagePage.of(messageService.listMessages(PageRequest.of(10, 10)));
+    }
+
+    @Benchmark
+    public MessageSlice scrollMessages() {
+        return messageService.scrollMessages(null, 10);
+    }
+}
@@ -2,9 +2,11 @@ package com.example.api.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.filter.CharacterEncodingFilter;
 
 @Configuration
+@EnableScheduling
 public class ApplicationConfig {
     @Bean
     public CharacterEncodingFilter characterEncodingFilter() {
@@ -0,0 +1,60 @@
+package com.example.api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MESSAGES_CACHE = "messages";
+
+    @Bean
+    public CacheManager cacheManager(MessageCacheProperties properties) {
+        if (!properties.enabled()) {
+            return new NoOpCacheManager();
+        }
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(MESSAGES_CACHE, Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new MessageExpiry(properties))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    @Bean
+    public Cache messageCache(CacheManager cacheManager) {
+        return cacheManager.getCache(MESSAGES_CACHE);
+    }
+
+    // Unknown ids are cached as NullValue, and expire sooner than real messages
+    private record MessageExpiry(MessageCacheProperties properties) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            var timeToLive = value instanceof NullValue
+                    ? properties.negativeTimeToLive()
+                    : properties.timeToLive();
+            return timeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.api.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Serves {@code application/cbor} next to JSON. Timestamps are written as epoch milliseconds
+ * instead of the formatted strings of the JSON representation, so binary clients do not parse
+ * dates. They are read in the system zone {@code LocalDateTime.now()} uses, and truncated to the
+ * millisecond.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CborConfig {
+
+    // Replaces the converter Spring MVC registers by default, which would keep the string timestamps
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        var objectMapper = builder.factory(new CBORFactory()).build();
+        objectMapper.registerModule(epochMillisModule(ZoneId.systemDefault()));
+        return new MappingJackson2CborHttpMessageConverter(objectMapper);
+    }
+
+    /**
+     * Registered after the Java time module so it takes precedence. Neither side is contextual, so
+     * the {@code @JsonFormat} patterns on the timestamp fields do not apply.
+     */
+    public static SimpleModule epochMillisModule(ZoneId zone) {
+        return new SimpleModule("EpochMillisModule")
+                .addSerializer(LocalDateTime.class, new EpochMillisSerializer(zone))
+                .addDeserializer(LocalDateTime.class, new EpochMillisDeserializer(zone));
+    }
+
+    static class EpochMillisSerializer extends StdSerializer<LocalDateTime> {
+
+        private final ZoneId zone;
+
+        EpochMillisSerializer(ZoneId zone) {
+            super(LocalDateTime.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.atZone(zone).toInstant().toEpochMilli());
+        }
+    }
+
+    static class EpochMillisDeserializer extends StdDeserializer<LocalDateTime> {
+
+        private final ZoneId zone;
+
+        EpochMillisDeserializer(ZoneId zone) {
+            super(LocalDateTime.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.currentToken().isNumeric()) {
+                return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), zone);
+        }
+    }
+}
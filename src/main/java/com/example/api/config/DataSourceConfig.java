@@ -0,0 +1,98 @@
+package com.example.api.config;
+
+import com.example.api.datasource.ConcurrencyLimitingDataSource;
+import com.example.api.datasource.ReadYourWritesFilter;
+import com.example.api.datasource.ReplicaPool;
+import com.example.api.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Replica routing is only set up when at least one replica is configured
+    private static final String FIRST_REPLICA_URL = "message.datasource.replicas[0].url";
+
+    @Bean
+    @ConditionalOnExpression("${message.datasource.max-concurrency:0} > 0")
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            ObjectProvider<MessageDataSourceProperties> dataSourceProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                var properties = dataSourceProperties.getObject();
+                return new ConcurrencyLimitingDataSource(
+                        dataSource, properties.maxConcurrency(), properties.acquireTimeout());
+            }
+        };
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = FIRST_REPLICA_URL)
+    public ReplicaPool replicaPool(
+            MessageDataSourceProperties dataSourceProperties,
+            DataSourceProperties primaryProperties) {
+        var replicas = new LinkedHashMap<String, DataSource>();
+        var replicaProperties = dataSourceProperties.replicas();
+        for (int index = 0; index < replicaProperties.size(); index++) {
+            var replica = replicaProperties.get(index);
+            var dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.url())
+                    .username(replica.username() == null ? primaryProperties.determineUsername() : replica.username())
+                    .password(replica.password() == null ? primaryProperties.determinePassword() : replica.password())
+                    .build();
+            dataSource.setPoolName("replica-" + index);
+            dataSource.setReadOnly(true);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+        return new ReplicaPool(
+                replicas,
+                dataSourceProperties.replicaMaxLag(),
+                dataSourceProperties.replicaCheckInterval(),
+                dataSourceProperties.replicaLagQuery());
+    }
+
+    /**
+     * Hands out connections lazily, on the first statement, once the transaction is known to be
+     * read-only or not. Read-only transactions go to the replicas and all others to the primary.
+     */
+    @Bean
+    @ConditionalOnProperty(name = FIRST_REPLICA_URL)
+    public static BeanPostProcessor replicaRoutingDataSourcePostProcessor(ObjectProvider<ReplicaPool> replicaPool) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof LazyConnectionDataSourceProxy) {
+                    return bean;
+                }
+                var routingDataSource = new LazyConnectionDataSourceProxy(dataSource);
+                routingDataSource.setReadOnlyDataSource(
+                        new ReplicaRoutingDataSource(dataSource, replicaPool.getObject()));
+                return routingDataSource;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = FIRST_REPLICA_URL)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ReadYourWritesFilter readYourWritesFilter(MessageDataSourceProperties dataSourceProperties) {
+        return new ReadYourWritesFilter(dataSourceProperties.readYourWritesWindow());
+    }
+}
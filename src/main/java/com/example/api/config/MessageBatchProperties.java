@@ -0,0 +1,10 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "message.batch")
+public record MessageBatchProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("10000") int maxSize) {
+}
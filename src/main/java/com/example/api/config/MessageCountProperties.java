@@ -0,0 +1,11 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "message.count")
+public record MessageCountProperties(
+        @DefaultValue("1m") Duration refreshInterval) {
+}
@@ -0,0 +1,40 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "message.datasource")
+public record MessageDataSourceProperties(
+        @DefaultValue("0") int maxConcurrency,
+        @DefaultValue("5s") Duration acquireTimeout,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration replicaMaxLag,
+        @DefaultValue("5s") Duration replicaCheckInterval,
+        @DefaultValue(REPLICA_LAG_QUERY) String replicaLagQuery,
+        @DefaultValue("15s") Duration readYourWritesWindow) {
+
+    // Seconds behind the primary; zero once everything received is replayed, so an idle primary shows no lag
+    public static final String REPLICA_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * A replica is only skipped at its next check, so it may fall up to {@code replicaMaxLag} plus
+     * {@code replicaCheckInterval} behind; a shorter window would send a client to a replica
+     * without its own writes.
+     */
+    public MessageDataSourceProperties {
+        if (!replicas.isEmpty() && readYourWritesWindow.compareTo(replicaMaxLag.plus(replicaCheckInterval)) <= 0) {
+            throw new IllegalArgumentException("message.datasource.read-your-writes-window must be longer than "
+                    + "replica-max-lag plus replica-check-interval");
+        }
+    }
+
+    /**
+     * A read replica. Username and password default to the primary's {@code spring.datasource} ones.
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
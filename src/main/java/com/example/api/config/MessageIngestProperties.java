@@ -0,0 +1,17 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "message.ingest")
+public record MessageIngestProperties(
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("100ms") Duration maxWait,
+        @DefaultValue("30s") Duration shutdownTimeout,
+        @DefaultValue("100ms") Duration retryBackoff,
+        @DefaultValue("10s") Duration maxRetryBackoff,
+        @DefaultValue("20") int maxAttempts) {
+}
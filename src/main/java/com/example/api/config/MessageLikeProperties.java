@@ -0,0 +1,12 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "message.likes")
+public record MessageLikeProperties(
+        @DefaultValue("false") boolean writeBehind,
+        @DefaultValue("1s") Duration flushInterval) {
+}
@@ -0,0 +1,15 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "message.outbox")
+public record MessageOutboxProperties(
+        @DefaultValue("1s") Duration relayInterval,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("message-changes.ndjson") Path file,
+        @DefaultValue("7d") Duration retention) {
+}
@@ -0,0 +1,9 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "message.page")
+public record MessagePageProperties(
+        @DefaultValue("1000") int maxSize) {
+}
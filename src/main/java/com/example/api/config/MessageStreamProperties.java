@@ -0,0 +1,23 @@
+package com.example.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "message.stream")
+public record MessageStreamProperties(
+        @DefaultValue("256") int bufferSize,
+        @DefaultValue("DISCONNECT") OverflowPolicy overflowPolicy,
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("1000") int maxReplay,
+        @DefaultValue("16") int workers,
+        @DefaultValue("10s") Duration sendTimeout) {
+
+    public enum OverflowPolicy {
+        /** Closes the stream so the client reconnects and replays from its Last-Event-ID. */
+        DISCONNECT,
+        /** Discards the oldest buffered message to make room, leaving a gap for the client. */
+        DROP_OLDEST
+    }
+}
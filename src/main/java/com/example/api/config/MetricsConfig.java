@@ -0,0 +1,63 @@
+package com.example.api.config;
+
+import com.example.api.datasource.ConcurrencyLimitingDataSource;
+import com.example.api.datasource.ReplicaPool;
+import com.example.api.metrics.StatementCounter;
+import com.example.api.metrics.StatementMetricsFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public StatementMetricsFilter statementMetricsFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        return new StatementMetricsFilter(statementCounter, meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitingDataSourceMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConcurrencyLimitingDataSource.class::isInstance)
+                .map(ConcurrencyLimitingDataSource.class::cast)
+                .forEach(dataSource -> {
+                    Gauge.builder("message.datasource.permits.available", dataSource,
+                                    ConcurrencyLimitingDataSource::availablePermits)
+                            .description("Database permits not currently held")
+                            .register(registry);
+                    Gauge.builder("message.datasource.permits.waiting", dataSource,
+                                    ConcurrencyLimitingDataSource::queueLength)
+                            .description("Callers waiting for a database permit")
+                            .register(registry);
+                });
+    }
+
+    @Bean
+    public MeterBinder replicaPoolMetrics(ObjectProvider<ReplicaPool> replicaPools) {
+        return registry -> replicaPools.orderedStream()
+                .forEach(replicaPool -> replicaPool.names().forEach(name ->
+                        Gauge.builder("message.datasource.replica.healthy", replicaPool,
+                                        pool -> pool.isHealthy(name) ? 1 : 0)
+                                .description("Whether the replica currently serves read-only transactions")
+                                .tag("replica", name)
+                                .register(registry)));
+    }
+}
@@ -1,14 +1,38 @@
 package com.example.api.controller;
 
 
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.count.CountMode;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageChangeSlice;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessagePage;
+import com.example.api.dto.MessageSearchPage;
+import com.example.api.dto.MessageSlice;
+import com.example.api.dto.MessageSummary;
 import com.example.api.exception.MessageNotFoundException;
+import com.example.api.exception.MessageQueueFullException;
+import com.example.api.exception.MessageVersionConflictException;
+import com.example.api.ingest.MessageIngestionQueue;
 import com.example.api.model.Message;
 import com.example.api.service.MessageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +42,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,24 +50,102 @@ import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/messages")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class MessageController {
     private final MessageService messageService;
 
+    private final MessageBatchProperties batchProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final MessageIngestionQueue messageIngestionQueue;
+
     @PostMapping(
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Message> registerMessage(@RequestBody Message message) {
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> registerMessage(
+            @RequestBody Message message,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (prefer != null && prefer.contains("respond-async")) {
+            return acceptMessage(message);
+        }
         var newMessage = messageService.registerMessage(message);
         return new ResponseEntity<>(newMessage, HttpStatus.CREATED);
     }
 
+    // Answers before the message is saved; it can be read once the ingestion queue has written it
+    private ResponseEntity<?> acceptMessage(Message message) {
+        try {
+            var acceptedMessage = messageIngestionQueue.accept(message);
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/messages/" + acceptedMessage.getId()))
+                    .header("Preference-Applied", "respond-async")
+                    .body(acceptedMessage);
+        } catch (ConstraintViolationException constraintViolationException) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(constraintViolationException.getConstraintViolations().stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+        } catch (MessageQueueFullException messageQueueFullException) {
+            return ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(messageQueueFullException.getMessage());
+        }
+    }
+
+    @PostMapping(
+            value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> registerMessages(@RequestBody List<Message> messages) {
+        if (messages.isEmpty() || messages.size() > batchProperties.maxSize()) {
+            return new ResponseEntity<>("Invalid batch size", HttpStatus.BAD_REQUEST);
+        }
+        return batchResponse(messageService.registerMessages(messages));
+    }
+
+    @PostMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> registerMessagesStream(InputStream body) {
+        var messages = new ArrayList<Message>();
+        try (var iterator = objectMapper.readerFor(Message.class).<Message>readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (messages.size() == batchProperties.maxSize()) {
+                    return new ResponseEntity<>("Invalid batch size", HttpStatus.BAD_REQUEST);
+                }
+                messages.add(iterator.nextValue());
+            }
+        } catch (IOException ioException) {
+            return new ResponseEntity<>("Invalid NDJSON payload", HttpStatus.BAD_REQUEST);
+        }
+        if (messages.isEmpty()) {
+            return new ResponseEntity<>("Invalid batch size", HttpStatus.BAD_REQUEST);
+        }
+        return batchResponse(messageService.registerMessages(messages));
+    }
+
+    private ResponseEntity<List<BatchItemResult>> batchResponse(List<BatchItemResult> results) {
+        var allCreated = results.stream()
+                .allMatch(result -> result.status() == BatchItemResult.Status.CREATED);
+        return new ResponseEntity<>(results, allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
     @GetMapping(value = "/{id}")
     public ResponseEntity<?> getMessage(@PathVariable String id) {
         var uuid = UUID.fromString(id);
         try {
             var message = messageService.getMessage(uuid);
-            return new ResponseEntity<>(message, HttpStatus.OK);
+            // A matching If-None-Match is answered with 304 before the body is serialized
+            return ResponseEntity.ok()
+                    .eTag(MessageETags.of(message))
+                    .body(message);
         } catch (MessageNotFoundException messageNotFoundException) {
             return new ResponseEntity<>("Invalid ID", HttpStatus.BAD_REQUEST);
         }
@@ -50,26 +153,115 @@ public class MessageController {
 
     @GetMapping(
             value = "",
-            produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<Message>> listMessages(
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> listMessages(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "exact") String count) {
+        CountMode countMode;
+        try {
+            countMode = CountMode.of(count);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return new ResponseEntity<>("Invalid count", HttpStatus.BAD_REQUEST);
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<Message> messages = messageService.listMessages(pageable);
+        Page<MessageSummary> messages = messageService.listMessages(pageable, countMode);
+        return new ResponseEntity<>(MessagePage.of(messages), HttpStatus.OK);
+    }
+
+    @GetMapping(
+            value = "",
+            params = "cursor",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> scrollMessages(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
+            return new ResponseEntity<>("Invalid size", HttpStatus.BAD_REQUEST);
+        }
+        MessageCursor messageCursor;
+        try {
+            messageCursor = cursor.isBlank() ? null : MessageCursor.decode(cursor);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return new ResponseEntity<>("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+        MessageSlice messages = messageService.scrollMessages(messageCursor, size);
         return new ResponseEntity<>(messages, HttpStatus.OK);
     }
 
+    @GetMapping(
+            value = "/search",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> searchMessages(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (q.isBlank()) {
+            return new ResponseEntity<>("Invalid query", HttpStatus.BAD_REQUEST);
+        }
+        Slice<MessageSummary> messages = messageService.searchMessages(q, PageRequest.of(page, size));
+        return new ResponseEntity<>(MessageSearchPage.of(messages), HttpStatus.OK);
+    }
+
+    @GetMapping(
+            value = "/changes",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> listChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int size) {
+        if (since < 0) {
+            return new ResponseEntity<>("Invalid since", HttpStatus.BAD_REQUEST);
+        }
+        if (size < 1) {
+            return new ResponseEntity<>("Invalid size", HttpStatus.BAD_REQUEST);
+        }
+        MessageChangeSlice changes = messageService.listChanges(since, size);
+        return new ResponseEntity<>(changes, HttpStatus.OK);
+    }
 
     @PutMapping(
             value = "/{id}",
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
-    public  ResponseEntity<?> updateMessage(@PathVariable String id, @RequestBody Message message) {
+    public  ResponseEntity<?> updateMessage(
+            @PathVariable String id,
+            @RequestBody Message message,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var uuid = UUID.fromString(id);
+        try {
+            Message updatedMessage;
+            if (ifMatch == null || ifMatch.strip().equals("*")) {
+                updatedMessage = messageService.updateMessage(uuid, message);
+            } else {
+                var version = MessageETags.parseVersion(ifMatch);
+                if (version.isEmpty()) {
+                    return new ResponseEntity<>("Invalid ETag", HttpStatus.PRECONDITION_FAILED);
+                }
+                updatedMessage = messageService.updateMessage(uuid, message, version.getAsLong());
+            }
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .eTag(MessageETags.of(updatedMessage))
+                    .body(updatedMessage);
+        } catch (MessageNotFoundException messageNotFoundException) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(messageNotFoundException.getMessage());
+        } catch (MessageVersionConflictException messageVersionConflictException) {
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_FAILED)
+                    .body(messageVersionConflictException.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/{id}/likes")
+    public ResponseEntity<?> likeMessage(@PathVariable String id) {
         var uuid = UUID.fromString(id);
         try {
-            var updatedMessage = messageService.updateMessage(uuid, message);
-            return new ResponseEntity<>(updatedMessage, HttpStatus.ACCEPTED);
+            return messageService.likeMessage(uuid)
+                    ? new ResponseEntity<>("Message liked", HttpStatus.OK)
+                    : new ResponseEntity<>("Like accepted", HttpStatus.ACCEPTED);
         } catch (MessageNotFoundException messageNotFoundException) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -78,15 +270,29 @@ public class MessageController {
     }
 
     @DeleteMapping(value = "/{id}")
-    public ResponseEntity<?> deleteMessage(@PathVariable String id) {
+    public ResponseEntity<?> deleteMessage(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         var uuid = UUID.fromString(id);
         try {
-            messageService.deleteMessage(uuid);
+            if (ifMatch == null || ifMatch.strip().equals("*")) {
+                messageService.deleteMessage(uuid);
+            } else {
+                var version = MessageETags.parseVersion(ifMatch);
+                if (version.isEmpty()) {
+                    return new ResponseEntity<>("Invalid ETag", HttpStatus.PRECONDITION_FAILED);
+                }
+                messageService.deleteMessage(uuid, version.getAsLong());
+            }
             return new ResponseEntity<>("Message deleted", HttpStatus.OK);
         } catch (MessageNotFoundException messageNotFoundException) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .body(messageNotFoundException.getMessage());
+        } catch (MessageVersionConflictException messageVersionConflictException) {
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_FAILED)
+                    .body(messageVersionConflictException.getMessage());
         }
     }
 }
@@ -0,0 +1,34 @@
+package com.example.api.controller;
+
+import com.example.api.model.Message;
+
+import java.util.OptionalLong;
+
+/**
+ * Strong ETags carrying the message version, which changes with every update, like and flush.
+ */
+final class MessageETags {
+
+    private MessageETags() {
+    }
+
+    static String of(Message message) {
+        return "\"" + message.getVersion() + "\"";
+    }
+
+    /**
+     * Reads the version from an {@code If-Match} value holding one strong ETag. Weak or malformed
+     * values are empty, since they can never match strongly.
+     */
+    static OptionalLong parseVersion(String ifMatch) {
+        var value = ifMatch.strip();
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(value.substring(1, value.length() - 1)));
+        } catch (NumberFormatException numberFormatException) {
+            return OptionalLong.empty();
+        }
+    }
+}
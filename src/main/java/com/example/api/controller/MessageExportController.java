@@ -0,0 +1,50 @@
+package com.example.api.controller;
+
+import com.example.api.export.MessageExportFormat;
+import com.example.api.service.MessageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/messages")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class MessageExportController {
+    private final MessageService messageService;
+
+    private final ObjectMapper objectMapper;
+
+    // Written straight to the response while the cursor is read, so no page of messages is ever held
+    @GetMapping(value = "/export")
+    public void exportMessages(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        var exportFormat = MessageExportFormat.of(format);
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(exportFormat.fileName())
+                .build()
+                .toString());
+        try (var writer = exportFormat.open(response.getOutputStream(), objectMapper)) {
+            messageService.exportMessages(writer);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidFormat(IllegalArgumentException illegalArgumentException) {
+        return new ResponseEntity<>("Invalid format", HttpStatus.BAD_REQUEST);
+    }
+}
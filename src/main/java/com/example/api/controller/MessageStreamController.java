@@ -0,0 +1,43 @@
+package com.example.api.controller;
+
+import com.example.api.config.MessageStreamProperties;
+import com.example.api.dto.MessageCursor;
+import com.example.api.stream.MessageStreamBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/messages")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class MessageStreamController {
+    private final MessageStreamBus messageStreamBus;
+
+    private final MessageStreamProperties streamProperties;
+
+    @GetMapping(
+            value = "/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMessages(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        var cursor = lastEventId == null || lastEventId.isBlank() ? null : MessageCursor.decode(lastEventId);
+        var emitter = new SseEmitter(streamProperties.timeout().toMillis());
+        messageStreamBus.subscribe(emitter, cursor);
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+
+    // The emitter return type cannot also carry an error body, so invalid cursors are mapped here
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidCursor(IllegalArgumentException illegalArgumentException) {
+        return new ResponseEntity<>("Invalid cursor", HttpStatus.BAD_REQUEST);
+    }
+}
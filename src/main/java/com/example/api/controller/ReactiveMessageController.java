@@ -0,0 +1,145 @@
+package com.example.api.controller;
+
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessagePage;
+import com.example.api.exception.MessageNotFoundException;
+import com.example.api.model.Message;
+import com.example.api.service.ReactiveMessageService;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+@RestController
+@RequestMapping("/messages")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveMessageController {
+    private final ReactiveMessageService messageService;
+
+    private final MessageBatchProperties batchProperties;
+
+    @PostMapping(
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Message>> registerMessage(@RequestBody Message message) {
+        return messageService.registerMessage(message)
+                .map(newMessage -> new ResponseEntity<>(newMessage, HttpStatus.CREATED));
+    }
+
+    @PostMapping(
+            value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> registerMessages(@RequestBody Flux<Message> messages) {
+        // Reading one item past the limit is enough to reject an oversized batch
+        return messages.take(batchProperties.maxSize() + 1L)
+                .collectList()
+                .flatMap(batch -> {
+                    if (batch.isEmpty() || batch.size() > batchProperties.maxSize()) {
+                        return Mono.just(new ResponseEntity<>("Invalid batch size", HttpStatus.BAD_REQUEST));
+                    }
+                    return messageService.registerMessages(batch).map(this::batchResponse);
+                });
+    }
+
+    private ResponseEntity<?> batchResponse(List<BatchItemResult> results) {
+        var allCreated = results.stream()
+                .allMatch(result -> result.status() == BatchItemResult.Status.CREATED);
+        return new ResponseEntity<>(results, allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
+    @GetMapping(value = "/{id}")
+    public Mono<ResponseEntity<?>> getMessage(@PathVariable String id) {
+        var uuid = UUID.fromString(id);
+        return messageService.getMessage(uuid)
+                .<ResponseEntity<?>>map(message -> ResponseEntity.ok()
+                        .eTag(MessageETags.of(message))
+                        .body(message))
+                .onErrorResume(MessageNotFoundException.class,
+                        messageNotFoundException -> Mono.just(new ResponseEntity<>("Invalid ID", HttpStatus.BAD_REQUEST)));
+    }
+
+    @GetMapping(
+            value = "",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<MessagePage>> listMessages(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return messageService.listMessages(page, size)
+                .map(messages -> new ResponseEntity<>(messages, HttpStatus.OK));
+    }
+
+    @GetMapping(
+            value = "",
+            params = "cursor",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> scrollMessages(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
+            return Mono.just(new ResponseEntity<>("Invalid size", HttpStatus.BAD_REQUEST));
+        }
+        MessageCursor messageCursor;
+        try {
+            messageCursor = cursor.isBlank() ? null : MessageCursor.decode(cursor);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return Mono.just(new ResponseEntity<>("Invalid cursor", HttpStatus.BAD_REQUEST));
+        }
+        return messageService.scrollMessages(messageCursor, size)
+                .map(messages -> new ResponseEntity<>(messages, HttpStatus.OK));
+    }
+
+    @PutMapping(
+            value = "/{id}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<?>> updateMessage(@PathVariable String id, @RequestBody Message message) {
+        var uuid = UUID.fromString(id);
+        return messageService.updateMessage(uuid, message)
+                .<ResponseEntity<?>>map(updatedMessage -> new ResponseEntity<>(updatedMessage, HttpStatus.ACCEPTED))
+                .onErrorResume(MessageNotFoundException.class, this::badRequest);
+    }
+
+    @PostMapping(value = "/{id}/likes")
+    public Mono<ResponseEntity<?>> likeMessage(@PathVariable String id) {
+        var uuid = UUID.fromString(id);
+        return messageService.likeMessage(uuid)
+                .<ResponseEntity<?>>map(applied -> applied
+                        ? new ResponseEntity<>("Message liked", HttpStatus.OK)
+                        : new ResponseEntity<>("Like accepted", HttpStatus.ACCEPTED))
+                .onErrorResume(MessageNotFoundException.class, this::badRequest);
+    }
+
+    @DeleteMapping(value = "/{id}")
+    public Mono<ResponseEntity<?>> deleteMessage(@PathVariable String id) {
+        var uuid = UUID.fromString(id);
+        return messageService.deleteMessage(uuid)
+                .<ResponseEntity<?>>map(deleted -> new ResponseEntity<>("Message deleted", HttpStatus.OK))
+                .onErrorResume(MessageNotFoundException.class, this::badRequest);
+    }
+
+    private Mono<ResponseEntity<?>> badRequest(MessageNotFoundException messageNotFoundException) {
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(messageNotFoundException.getMessage()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.api.controller;
+
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.UserMessageSlice;
+import com.example.api.service.MessageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class UserController {
+    private final MessageService messageService;
+
+    @GetMapping(
+            value = "/{username}/messages",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> listUserMessages(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
+            return new ResponseEntity<>("Invalid size", HttpStatus.BAD_REQUEST);
+        }
+        MessageCursor messageCursor;
+        try {
+            messageCursor = cursor.isBlank() ? null : MessageCursor.decode(cursor);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return new ResponseEntity<>("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+        var messages = messageService.scrollUserMessages(username, messageCursor, size);
+        var messageCount = messageService.countUserMessages(username);
+        return new ResponseEntity<>(UserMessageSlice.of(username, messageCount, messages), HttpStatus.OK);
+    }
+}
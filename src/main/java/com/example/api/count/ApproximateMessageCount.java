@@ -0,0 +1,79 @@
+package com.example.api.count;
+
+import com.example.api.config.MessageCountProperties;
+import com.example.api.event.MessageCreatedEvent;
+import com.example.api.event.MessageDeletedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Total number of messages without a {@code COUNT(*)} per request. The total is refreshed from the
+ * {@link MessageCountEstimator} every {@code message.count.refresh-interval} and adjusted by the
+ * messages created and deleted in between, so it drifts only by what the estimate itself misses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApproximateMessageCount {
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final MessageCountEstimator estimator;
+
+    private final MessageCountProperties countProperties;
+
+    private final TaskScheduler taskScheduler;
+
+    private final AtomicLong total = new AtomicLong(UNKNOWN);
+
+    private ScheduledFuture<?> refreshTask;
+
+    @PostConstruct
+    void scheduleRefresh() {
+        refreshTask = taskScheduler.scheduleWithFixedDelay(this::refresh, countProperties.refreshInterval());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshTask.cancel(false);
+    }
+
+    public long get() {
+        if (total.get() == UNKNOWN) {
+            refresh();
+        }
+        return Math.max(total.get(), 0);
+    }
+
+    void refresh() {
+        try {
+            total.set(estimator.estimate());
+        } catch (DataAccessException dataAccessException) {
+            // Keeps serving the previous total until the next refresh
+            log.warn("Could not refresh the message count estimate", dataAccessException);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        adjust(1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageDeleted(MessageDeletedEvent event) {
+        adjust(-1);
+    }
+
+    private void adjust(long delta) {
+        total.getAndUpdate(value -> value == UNKNOWN ? value : value + delta);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.api.count;
+
+import java.util.Locale;
+
+public enum CountMode {
+    /** Counts every row of the table for each page. */
+    EXACT,
+    /** Uses the periodically refreshed estimate kept by {@link ApproximateMessageCount}. */
+    APPROXIMATE;
+
+    /**
+     * @throws IllegalArgumentException when the mode is not supported
+     */
+    public static CountMode of(String mode) {
+        return valueOf(mode.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.api.count;
+
+/**
+ * Source of the message total that {@link ApproximateMessageCount} refreshes from.
+ */
+public interface MessageCountEstimator {
+
+    long estimate();
+}
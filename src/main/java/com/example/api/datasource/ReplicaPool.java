@@ -0,0 +1,141 @@
+package com.example.api.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas taken in turn. Every replica starts unhealthy and is checked each
+ * {@code checkInterval}: it serves reads while the lag query reports at most {@code maxLag} seconds,
+ * and is skipped from the first failed check or connection until a later check passes.
+ */
+@Slf4j
+public class ReplicaPool implements Closeable {
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final Duration maxLag;
+
+    private final Duration checkInterval;
+
+    private final String lagQuery;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private ScheduledExecutorService executor;
+
+    public ReplicaPool(Map<String, DataSource> replicas, Duration maxLag, Duration checkInterval, String lagQuery) {
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.lagQuery = lagQuery;
+    }
+
+    public void start() {
+        var threadFactory = new CustomizableThreadFactory("replica-check-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        executor.scheduleWithFixedDelay(this::checkHealth, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The next healthy replica in round-robin order, or empty when none is healthy.
+     */
+    public Optional<DataSource> next() {
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            var replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.healthy) {
+                return Optional.of(replica.dataSource);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void checkHealth() {
+        replicas.forEach(replica -> {
+            try (var connection = replica.dataSource.getConnection();
+                 var statement = connection.createStatement();
+                 var resultSet = statement.executeQuery(lagQuery)) {
+                resultSet.next();
+                var lagMillis = (long) (resultSet.getDouble(1) * 1000);
+                if (lagMillis > maxLag.toMillis()) {
+                    markUnhealthy(replica, "lagging " + lagMillis + "ms behind the primary");
+                } else {
+                    markHealthy(replica);
+                }
+            } catch (SQLException | RuntimeException exception) {
+                markUnhealthy(replica, exception.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Skips the replica until its next successful check, after a connection to it failed.
+     */
+    public void markUnhealthy(DataSource dataSource, String reason) {
+        replicas.stream()
+                .filter(replica -> replica.dataSource == dataSource)
+                .forEach(replica -> markUnhealthy(replica, reason));
+    }
+
+    public boolean isHealthy(String name) {
+        return replicas.stream().anyMatch(replica -> replica.name.equals(name) && replica.healthy);
+    }
+
+    public List<String> names() {
+        return replicas.stream().map(replica -> replica.name).toList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (var replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static void markHealthy(Replica replica) {
+        if (!replica.healthy) {
+            log.info("Replica {} is healthy, routing reads to it", replica.name);
+            replica.healthy = true;
+        }
+    }
+
+    private static void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("Replica {} is unhealthy, routing its reads elsewhere: {}", replica.name, reason);
+            replica.healthy = false;
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
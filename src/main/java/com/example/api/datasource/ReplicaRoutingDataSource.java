@@ -0,0 +1,62 @@
+package com.example.api.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Target of read-only transactions: the next healthy replica, or the primary when no replica is
+ * healthy, the replica refuses the connection, or the current request is pinned to the primary
+ * because its client wrote recently.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final ReplicaPool replicaPool;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicaPool) {
+        this.primary = primary;
+        this.replicaPool = replicaPool;
+    }
+
+    /**
+     * Sends the reads of the current thread to the primary until {@link #unpin()}.
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var replica = isPinnedToPrimary() ? null : replicaPool.next().orElse(null);
+        if (replica != null) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException sqlException) {
+                replicaPool.markUnhealthy(replica, sqlException.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Replicas use their own credentials, so explicit ones only make sense for the primary
+        return primary.getConnection(username, password);
+    }
+}
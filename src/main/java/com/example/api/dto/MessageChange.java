@@ -0,0 +1,29 @@
+package com.example.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the change feed. {@code message} holds the message as written by the change and
+ * is absent for deletes.
+ */
+public record MessageChange(
+        long sequence,
+        Type type,
+        UUID messageId,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS") LocalDateTime occurredAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL) MessageSummary message) {
+
+    public MessageChange withSequence(long sequence) {
+        return new MessageChange(sequence, type, messageId, occurredAt, message);
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.api.dto;
+
+import java.util.List;
+
+public record MessageChangeSlice(List<MessageChange> changes, int size, boolean hasNext, long nextSince) {
+}
@@ -0,0 +1,55 @@
+package com.example.api.dto;
+
+import com.example.api.model.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+public record MessageCursor(LocalDateTime createdAt, UUID id) implements Comparable<MessageCursor> {
+
+    private static final String SEPARATOR = "|";
+
+    // Databases order UUIDs by their unsigned bytes, unlike UUID.compareTo
+    private static final Comparator<MessageCursor> ORDER = Comparator
+            .comparing(MessageCursor::createdAt)
+            .thenComparing(cursor -> cursor.id().getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(cursor -> cursor.id().getLeastSignificantBits(), Long::compareUnsigned);
+
+    public static MessageCursor of(Message message) {
+        return new MessageCursor(message.getCreatedAt(), message.getId());
+    }
+
+    public static MessageCursor of(MessageSummary message) {
+        return new MessageCursor(message.createdAt(), message.id());
+    }
+
+    public static MessageCursor decode(String cursor) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new MessageCursor(
+                    LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    UUID.fromString(decoded.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid cursor", exception);
+        }
+    }
+
+    @Override
+    public int compareTo(MessageCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    public String encode() {
+        var raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.api.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public record MessagePage(
+        List<MessageSummary> content,
+        int number,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean last) {
+
+    public static MessagePage of(Page<MessageSummary> page) {
+        return new MessagePage(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isLast());
+    }
+
+    public static MessagePage of(List<MessageSummary> content, int number, int size, long totalElements) {
+        var totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+        return new MessagePage(content, number, size, totalElements, totalPages, number + 1 >= totalPages);
+    }
+}
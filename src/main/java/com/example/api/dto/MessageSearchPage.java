@@ -0,0 +1,20 @@
+package com.example.api.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public record MessageSearchPage(
+        List<MessageSummary> content,
+        int number,
+        int size,
+        boolean last) {
+
+    public static MessageSearchPage of(Slice<MessageSummary> slice) {
+        return new MessageSearchPage(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.isLast());
+    }
+}
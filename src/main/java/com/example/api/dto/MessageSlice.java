@@ -0,0 +1,6 @@
+package com.example.api.dto;
+
+import java.util.List;
+
+public record MessageSlice(List<MessageSummary> content, int size, boolean hasNext, String nextCursor) {
+}
@@ -0,0 +1,26 @@
+package com.example.api.dto;
+
+import com.example.api.model.Message;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record MessageSummary(
+        UUID id,
+        String username,
+        String content,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS") LocalDateTime createdAt,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS") LocalDateTime updatedAt,
+        int likeCount) {
+
+    public static MessageSummary of(Message message) {
+        return new MessageSummary(
+                message.getId(),
+                message.getUsername(),
+                message.getContent(),
+                message.getCreatedAt(),
+                message.getUpdatedAt(),
+                message.getLikeCount());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.api.dto;
+
+import java.util.List;
+
+public record UserMessageSlice(
+        String username,
+        long messageCount,
+        List<MessageSummary> content,
+        int size,
+        boolean hasNext,
+        String nextCursor) {
+
+    public static UserMessageSlice of(String username, long messageCount, MessageSlice slice) {
+        return new UserMessageSlice(
+                username,
+                messageCount,
+                slice.content(),
+                slice.size(),
+                slice.hasNext(),
+                slice.nextCursor());
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.api.event;
+
+import com.example.api.dto.MessageChange;
+
+public record MessageChangedEvent(MessageChange change) {
+}
@@ -0,0 +1,6 @@
+package com.example.api.event;
+
+import java.util.UUID;
+
+public record MessageDeletedEvent(UUID id) {
+}
@@ -0,0 +1,7 @@
+package com.example.api.exception;
+
+public class MessageQueueFullException extends RuntimeException {
+    public MessageQueueFullException(String message) {
+        super(message);
+    }
+}
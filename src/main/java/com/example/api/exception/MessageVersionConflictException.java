@@ -0,0 +1,7 @@
+package com.example.api.exception;
+
+public class MessageVersionConflictException extends RuntimeException {
+    public MessageVersionConflictException(String message) {
+        super(message);
+    }
+}
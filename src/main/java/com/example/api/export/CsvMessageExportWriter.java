@@ -0,0 +1,65 @@
+package com.example.api.export;
+
+import com.example.api.dto.MessageSummary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * RFC 4180 CSV with a header row. Timestamps use the same pattern as the JSON representation.
+ */
+public class CsvMessageExportWriter implements MessageExportWriter {
+
+    static final String HEADER = "id,username,content,createdAt,updatedAt,likeCount";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSS");
+
+    private final Writer writer;
+
+    public CsvMessageExportWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(MessageSummary message) throws IOException {
+        writer.write(message.id().toString());
+        writer.write(',');
+        writer.write(escape(message.username()));
+        writer.write(',');
+        writer.write(escape(message.content()));
+        writer.write(',');
+        writer.write(format(message.createdAt()));
+        writer.write(',');
+        writer.write(format(message.updatedAt()));
+        writer.write(',');
+        writer.write(Integer.toString(message.likeCount()));
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String format(LocalDateTime timestamp) {
+        return timestamp == null ? "" : TIMESTAMP_FORMAT.format(timestamp);
+    }
+}
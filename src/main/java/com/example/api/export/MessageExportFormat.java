@@ -0,0 +1,43 @@
+package com.example.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+public enum MessageExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+
+    private final String extension;
+
+    MessageExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String fileName() {
+        return "messages." + extension;
+    }
+
+    public MessageExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        return switch (this) {
+            case NDJSON -> new NdjsonMessageExportWriter(outputStream, objectMapper);
+            case CSV -> new CsvMessageExportWriter(outputStream);
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException when the format is not supported
+     */
+    public static MessageExportFormat of(String format) {
+        return valueOf(format.toUpperCase(Locale.ROOT));
+    }
+}
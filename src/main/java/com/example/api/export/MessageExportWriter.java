@@ -0,0 +1,15 @@
+package com.example.api.export;
+
+import com.example.api.dto.MessageSummary;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes exported messages one at a time. Implementations buffer a bounded amount of output, so
+ * memory does not grow with the number of messages.
+ */
+public interface MessageExportWriter extends Closeable {
+
+    void write(MessageSummary message) throws IOException;
+}
@@ -0,0 +1,38 @@
+package com.example.api.export;
+
+import com.example.api.dto.MessageSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON object per line, in the same representation as the other message endpoints.
+ */
+public class NdjsonMessageExportWriter implements MessageExportWriter {
+
+    private final JsonGenerator generator;
+
+    private final ObjectWriter messageWriter;
+
+    public NdjsonMessageExportWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.createGenerator(outputStream);
+        // The output stream flushes itself when its buffer fills; a flush per line would send a chunk per message
+        this.messageWriter = objectMapper.writerFor(MessageSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void write(MessageSummary message) throws IOException {
+        messageWriter.writeValue(generator, message);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
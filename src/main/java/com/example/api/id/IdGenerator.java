@@ -0,0 +1,8 @@
+package com.example.api.id;
+
+import java.util.UUID;
+
+public interface IdGenerator {
+
+    UUID generate();
+}
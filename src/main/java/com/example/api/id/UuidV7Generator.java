@@ -0,0 +1,54 @@
+package com.example.api.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDv7 (RFC 9562): 48-bit Unix millisecond timestamp, a 12-bit
+ * counter in rand_a and 62 random bits. Timestamp and counter are advanced
+ * together with a single CAS, so ids are strictly increasing within the JVM
+ * even when several are requested in the same millisecond or the clock steps back.
+ */
+@Component
+@ConditionalOnProperty(name = "message.id-generator", havingValue = "uuid-v7", matchIfMissing = true)
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7L << 12;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public UuidV7Generator() {
+        this(Clock.systemUTC());
+    }
+
+    UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID generate() {
+        var timestampAndCounter = nextTimestampAndCounter();
+        var timestamp = timestampAndCounter >>> COUNTER_BITS;
+        var counter = timestampAndCounter & COUNTER_MASK;
+        var mostSignificantBits = (timestamp << 16) | VERSION | counter;
+        var leastSignificantBits = (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private long nextTimestampAndCounter() {
+        var now = clock.millis() << COUNTER_BITS;
+        // A counter overflow carries into the timestamp, borrowing the next millisecond
+        return lastTimestampAndCounter.updateAndGet(last -> Math.max(now, last + 1));
+    }
+}
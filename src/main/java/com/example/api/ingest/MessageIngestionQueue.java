@@ -0,0 +1,307 @@
+package com.example.api.ingest;
+
+import com.example.api.config.MessageIngestProperties;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.exception.MessageQueueFullException;
+import com.example.api.id.IdGenerator;
+import com.example.api.model.Message;
+import com.example.api.service.MessageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts messages without waiting for them to be saved. Accepted messages get their id
+ * immediately and wait in a bounded buffer that one writer thread saves in batches, each batch in
+ * chunked transactions. The messages of a failed chunk are saved one by one: those failing for a
+ * transient reason are retried with exponential backoff before anything newer, so a database
+ * outage fills the buffer and rejects new messages instead of losing accepted ones. A message that
+ * cannot be saved, or still fails after {@code max-attempts}, is logged to the dead letter logger
+ * instead of blocking the queue. A full buffer rejects new messages instead of growing, and
+ * stopping the application writes whatever is still buffered.
+ */
+@Slf4j
+@Component
+public class MessageIngestionQueue {
+
+    // A logger of its own, so given up messages can be routed to a separate file and posted again
+    private static final Logger DEAD_LETTERS = LoggerFactory.getLogger("message.ingest.dead-letter");
+
+    private final MessageService messageService;
+
+    private final IdGenerator idGenerator;
+
+    private final Validator validator;
+
+    private final MessageIngestProperties ingestProperties;
+
+    private final BlockingQueue<Message> buffer;
+
+    private final Timer flushTimer;
+
+    private final Counter rejectedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter lostCounter;
+
+    private final Counter deadLetteredCounter;
+
+    // Messages whose save failed for a transient reason, owned by the writer thread
+    private final List<Retry> retries = new ArrayList<>();
+
+    private Duration retryBackoff = Duration.ZERO;
+
+    private volatile boolean running = true;
+
+    // Set once the shutdown timeout passed, to stop retrying
+    private volatile boolean abandoned;
+
+    private Thread writer;
+
+    public MessageIngestionQueue(
+            MessageService messageService,
+            IdGenerator idGenerator,
+            Validator validator,
+            MessageIngestProperties ingestProperties,
+            MeterRegistry meterRegistry) {
+        this.messageService = messageService;
+        this.idGenerator = idGenerator;
+        this.validator = validator;
+        this.ingestProperties = ingestProperties;
+        this.buffer = new ArrayBlockingQueue<>(ingestProperties.capacity());
+        this.flushTimer = Timer.builder("message.ingest.flush")
+                .description("Time spent saving one batch of accepted messages")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("message.ingest.rejected")
+                .description("Messages refused because the ingestion queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("message.ingest.failed")
+                .description("Failed attempts to save accepted messages, which are retried")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("message.ingest.lost")
+                .description("Accepted messages still unsaved when the shutdown timeout passed")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("message.ingest.dead.lettered")
+                .description("Accepted messages given up on, because they cannot be saved or kept failing")
+                .register(meterRegistry);
+        meterRegistry.gauge("message.ingest.queue.size", buffer, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        var threadFactory = new CustomizableThreadFactory("message-ingest-");
+        writer = threadFactory.newThread(this::run);
+        writer.start();
+    }
+
+    /**
+     * Assigns the message id and queues the message for saving.
+     *
+     * @throws ConstraintViolationException when the message is invalid
+     * @throws MessageQueueFullException when the queue is full or stopping
+     */
+    public Message accept(Message message) {
+        var violations = validator.validate(message);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        message.setId(idGenerator.generate());
+        if (!running || !buffer.offer(message)) {
+            rejectedCounter.increment();
+            throw new MessageQueueFullException("Message queue is full");
+        }
+        return message;
+    }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    private void run() {
+        // Keeps draining after a stop is requested, until the buffer and the retries are empty
+        while (!abandoned && (running || !buffer.isEmpty() || !retries.isEmpty())) {
+            try {
+                flush(running ? ingestProperties.maxWait() : Duration.ZERO);
+            } catch (InterruptedException interruptedException) {
+                // Taken as a stop request; accepted messages are still written unless the shutdown gave up
+                running = false;
+            } catch (RuntimeException exception) {
+                log.error("Could not save accepted messages", exception);
+            }
+        }
+        var unsaved = new ArrayList<Message>(retries.stream().map(Retry::message).toList());
+        buffer.drainTo(unsaved);
+        if (!unsaved.isEmpty()) {
+            lostCounter.increment(unsaved.size());
+            log.error("{} accepted messages were lost at shutdown: {}", unsaved.size(),
+                    unsaved.stream().map(Message::getId).toList());
+        }
+    }
+
+    /**
+     * Retries the messages that failed to save after the backoff, or otherwise waits up to
+     * {@code maxWait} for a message and saves it with whatever else is queued, up to one batch.
+     * Returns the number of messages attempted.
+     */
+    int flush(Duration maxWait) throws InterruptedException {
+        if (!retries.isEmpty()) {
+            return retry();
+        }
+        var first = buffer.poll(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return 0;
+        }
+        var messages = new ArrayList<Message>(ingestProperties.batchSize());
+        messages.add(first);
+        buffer.drainTo(messages, ingestProperties.batchSize() - 1);
+        var batch = messages.stream().map(message -> new Retry(message, 0)).toList();
+        flushTimer.record(() -> save(batch));
+        return batch.size();
+    }
+
+    private int retry() throws InterruptedException {
+        retryBackoff = retryBackoff.isZero()
+                ? ingestProperties.retryBackoff()
+                : min(retryBackoff.multipliedBy(2), ingestProperties.maxRetryBackoff());
+        Thread.sleep(retryBackoff.toMillis());
+        var batch = new ArrayList<>(retries);
+        retries.clear();
+        flushTimer.record(() -> save(unstored(batch)));
+        if (retries.isEmpty()) {
+            retryBackoff = Duration.ZERO;
+        }
+        return batch.size();
+    }
+
+    // Saves the batch in chunks, then each message of a failed chunk on its own to find the ones that cannot be saved
+    private void save(List<Retry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<BatchItemResult> results;
+        try {
+            results = messageService.saveMessages(batch.stream().map(Retry::message).toList());
+        } catch (RuntimeException exception) {
+            if (isTransient(exception)) {
+                log.warn("Could not save {} accepted messages, retrying", batch.size(), exception);
+                batch.forEach(retry -> retryLater(retry, exception));
+                return;
+            }
+            saveEach(unstored(batch));
+            return;
+        }
+        var failed = results.stream()
+                .filter(result -> result.status() != BatchItemResult.Status.CREATED)
+                .map(result -> batch.get(result.index()))
+                .toList();
+        saveEach(unstored(failed));
+    }
+
+    private void saveEach(List<Retry> batch) {
+        for (int index = 0; index < batch.size(); index++) {
+            var retry = batch.get(index);
+            try {
+                messageService.saveMessage(retry.message());
+            } catch (RuntimeException exception) {
+                if (!isTransient(exception)) {
+                    deadLetter(retry.message(), exception);
+                    continue;
+                }
+                // The database is likely unavailable, so the rest wait for the next retry instead of failing one by one
+                var pending = batch.subList(index, batch.size());
+                log.warn("Could not save {} accepted messages, retrying", pending.size(), exception);
+                pending.forEach(remaining -> retryLater(remaining, exception));
+                return;
+            }
+        }
+    }
+
+    // A chunk may have committed before its failure was reported; saving it again would fail for good
+    private List<Retry> unstored(List<Retry> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        Set<UUID> storedIds;
+        try {
+            storedIds = messageService.findStoredIds(batch.stream().map(retry -> retry.message().getId()).toList());
+        } catch (RuntimeException exception) {
+            log.warn("Could not check {} accepted messages before saving them again", batch.size(), exception);
+            batch.forEach(retry -> retryLater(retry, exception));
+            return List.of();
+        }
+        return batch.stream()
+                .filter(retry -> !storedIds.contains(retry.message().getId()))
+                .toList();
+    }
+
+    private void retryLater(Retry retry, Exception exception) {
+        failedCounter.increment();
+        var attempts = retry.attempts() + 1;
+        if (attempts >= ingestProperties.maxAttempts()) {
+            deadLetter(retry.message(), exception);
+            return;
+        }
+        retries.add(new Retry(retry.message(), attempts));
+    }
+
+    private void deadLetter(Message message, Exception exception) {
+        deadLetteredCounter.increment();
+        DEAD_LETTERS.error("Gave up on accepted message {} by {}: {}", message.getId(), message.getUsername(),
+                message.getContent(), exception);
+    }
+
+    // Failures that may pass on their own, such as timeouts, lock conflicts and lost connections
+    private static boolean isTransient(Throwable exception) {
+        return exception instanceof TransientDataAccessException
+                || exception instanceof RecoverableDataAccessException
+                || exception instanceof DataAccessResourceFailureException
+                || exception instanceof CannotCreateTransactionException;
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        // The writer only stops once the buffer and the retries are empty
+        writer.join(ingestProperties.shutdownTimeout().toMillis());
+        if (writer.isAlive()) {
+            // Gives up retrying; the writer logs the ids of every message it could not save
+            abandoned = true;
+            writer.interrupt();
+            writer.join(ingestProperties.shutdownTimeout().toMillis());
+        }
+    }
+
+    private record Retry(Message message, int attempts) {
+    }
+}
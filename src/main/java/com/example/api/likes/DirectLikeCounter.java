@@ -0,0 +1,40 @@
+package com.example.api.likes;
+
+import com.example.api.exception.MessageNotFoundException;
+import com.example.api.outbox.MessageOutbox;
+import com.example.api.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "message.likes.write-behind", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DirectLikeCounter implements LikeCounter {
+
+    private final MessageRepository messageRepository;
+
+    private final Cache messageCache;
+
+    private final MessageOutbox messageOutbox;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public boolean increment(UUID id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (messageRepository.addLikes(id, 1) == 0) {
+                throw new MessageNotFoundException("Message not found");
+            }
+            // A like bumps the version, so consumers of the feed need the new one as well
+            messageOutbox.recordUpdated(messageRepository.findById(id)
+                    .orElseThrow(() -> new MessageNotFoundException("Message not found")));
+        });
+        messageCache.evict(id);
+        return true;
+    }
+}
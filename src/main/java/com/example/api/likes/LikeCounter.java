@@ -0,0 +1,13 @@
+package com.example.api.likes;
+
+import java.util.UUID;
+
+public interface LikeCounter {
+
+    /**
+     * Adds one like to the message.
+     *
+     * @return {@code true} when the like is already stored, {@code false} when it was queued
+     */
+    boolean increment(UUID id);
+}
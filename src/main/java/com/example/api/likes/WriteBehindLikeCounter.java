@@ -0,0 +1,117 @@
+package com.example.api.likes;
+
+import com.example.api.config.MessageLikeProperties;
+import com.example.api.outbox.MessageOutbox;
+import com.example.api.repository.MessageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates likes in memory and adds them to the database in one JDBC batch per flush, so
+ * concurrent likes on the same message do not queue up behind its row lock. Each flush records one
+ * change per liked message in the outbox, in the same transaction. Likes for unknown messages are
+ * dropped when flushed, and likes still pending are lost if the process dies.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "message.likes.write-behind", havingValue = "true")
+@RequiredArgsConstructor
+public class WriteBehindLikeCounter implements LikeCounter {
+
+    private static final String ADD_LIKES =
+            "UPDATE message SET like_count = like_count + ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache messageCache;
+
+    private final TaskScheduler taskScheduler;
+
+    private final MessageLikeProperties likeProperties;
+
+    private final MessageRepository messageRepository;
+
+    private final MessageOutbox messageOutbox;
+
+    private final ConcurrentHashMap<UUID, LongAdder> pendingLikes = new ConcurrentHashMap<>();
+
+    // Idle counters removed from pendingLikes; a writer may still hold one, so it is drained once more
+    private final Map<UUID, LongAdder> retiredLikes = new HashMap<>();
+
+    private ScheduledFuture<?> flushTask;
+
+    @PostConstruct
+    void scheduleFlush() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flush, likeProperties.flushInterval());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushTask.cancel(false);
+        flush();
+    }
+
+    @Override
+    public boolean increment(UUID id) {
+        pendingLikes.computeIfAbsent(id, key -> new LongAdder()).increment();
+        return false;
+    }
+
+    public synchronized void flush() {
+        // Sorted so concurrent flushes from several instances lock rows in the same order
+        var likes = new TreeMap<UUID, Long>();
+        retiredLikes.forEach((id, adder) -> addLikes(likes, id, adder.sumThenReset()));
+        retiredLikes.clear();
+        pendingLikes.forEach((id, adder) -> {
+            var count = adder.sumThenReset();
+            if (count == 0 && pendingLikes.remove(id, adder)) {
+                retiredLikes.put(id, adder);
+            }
+            addLikes(likes, id, count);
+        });
+        if (likes.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = likes.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(ADD_LIKES, batch);
+                messageOutbox.recordUpdated(messageRepository.findAllById(likes.keySet()));
+            });
+        } catch (DataAccessException dataAccessException) {
+            log.warn("Could not flush likes for {} messages, retrying on next flush", likes.size(), dataAccessException);
+            likes.forEach((id, count) -> pendingLikes.computeIfAbsent(id, key -> new LongAdder()).add(count));
+            return;
+        }
+        likes.keySet().forEach(messageCache::evict);
+    }
+
+    private static void addLikes(Map<UUID, Long> likes, UUID id, long count) {
+        if (count != 0) {
+            likes.merge(id, count, Long::sum);
+        }
+    }
+}
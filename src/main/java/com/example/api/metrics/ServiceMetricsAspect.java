@@ -0,0 +1,44 @@
+package com.example.api.metrics;
+
+import com.example.api.exception.MessageNotFoundException;
+import com.example.api.exception.MessageVersionConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "message.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.example.api.service.MessageService+.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        var sample = Timer.start(meterRegistry);
+        var outcome = "SUCCESS";
+        var exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            outcome = throwable instanceof MessageNotFoundException ? "NOT_FOUND"
+                    : throwable instanceof MessageVersionConflictException ? "CONFLICT"
+                    : "ERROR";
+            exception = throwable.getClass().getSimpleName();
+            throw throwable;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Time spent in MessageService operations")
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
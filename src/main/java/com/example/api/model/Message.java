@@ -1,17 +1,27 @@
 package com.example.api.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.extern.jackson.Jacksonized;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -22,17 +32,25 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Jacksonized
-public class Message {
+@Table(name = "message", indexes = {
+        @Index(name = "idx_message_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_message_username_created_at_id", columnList = "username, created_at DESC, id DESC")
+})
+public class Message implements Persistable<UUID> {
 
+    // Spring Data annotations map the same class for the reactive R2DBC repository
     @Id
+    @org.springframework.data.annotation.Id
     private UUID id;
 
     @Column(nullable = false)
     @NotEmpty(message = "User may not be empty")
+    @Size(max = 255, message = "User may not be longer than 255 characters")
     private String username;
 
     @Column(nullable = false)
     @NotEmpty(message = "Content may not be null")
+    @Size(max = 255, message = "Content may not be longer than 255 characters")
     private String content;
 
     @CreationTimestamp
@@ -46,10 +64,36 @@ public class Message {
     @Builder.Default
     private int likeCount = 0;
 
+    // Exposed as the ETag header instead of in the body; bulk updates increment it explicitly
+    @Version
+    @JsonIgnore
+    @Builder.Default
+    private long version = 0;
+
+    // Ids are assigned before saving, so Spring Data cannot tell new messages apart by a null id
+    @Transient
+    @org.springframework.data.annotation.Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
     @PrePersist
     public void prePersist() {
         var timestamp = LocalDateTime.now();
         createdAt = timestamp;
         updatedAt = timestamp;
+        persisted = true;
+    }
+
+    @PostLoad
+    public void markPersisted() {
+        persisted = true;
     }
 }
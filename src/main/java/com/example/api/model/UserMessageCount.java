@@ -0,0 +1,28 @@
+package com.example.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of messages per username, kept up to date in the same transaction that inserts or
+ * deletes the messages, so listings never count them.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_message_count")
+public class UserMessageCount {
+
+    @Id
+    @org.springframework.data.annotation.Id
+    private String username;
+
+    @Column(nullable = false)
+    private long messageCount;
+}
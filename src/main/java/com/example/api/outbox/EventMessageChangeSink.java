@@ -0,0 +1,27 @@
+package com.example.api.outbox;
+
+import com.example.api.dto.MessageChange;
+import com.example.api.event.MessageChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes every change as a {@link MessageChangedEvent} to in-process listeners. Transactional
+ * listeners receive them once the relay commits.
+ */
+@Component
+@ConditionalOnProperty(name = "message.outbox.sink", havingValue = "event", matchIfMissing = true)
+@RequiredArgsConstructor
+public class EventMessageChangeSink implements MessageChangeSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<MessageChange> changes) {
+        changes.forEach(change -> eventPublisher.publishEvent(new MessageChangedEvent(change)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.api.outbox;
+
+import com.example.api.config.MessageOutboxProperties;
+import com.example.api.dto.MessageChange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every change as one JSON line to {@code message.outbox.file}. A batch whose relay
+ * transaction fails after the write is appended again, so readers skip sequence numbers they
+ * have already seen.
+ */
+@Component
+@ConditionalOnProperty(name = "message.outbox.sink", havingValue = "file")
+@RequiredArgsConstructor
+public class FileMessageChangeSink implements MessageChangeSink {
+
+    private final MessageOutboxProperties outboxProperties;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public synchronized void publish(List<MessageChange> changes) {
+        try (var writer = Files.newBufferedWriter(outboxProperties.file(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (var change : changes) {
+                writer.write(objectMapper.writeValueAsString(change));
+                writer.write('\n');
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Could not append message changes to " + outboxProperties.file(), ioException);
+        }
+    }
+}
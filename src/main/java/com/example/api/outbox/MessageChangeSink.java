@@ -0,0 +1,14 @@
+package com.example.api.outbox;
+
+import com.example.api.dto.MessageChange;
+
+import java.util.List;
+
+/**
+ * Destination of the changes published by the outbox relay. Called inside the relay transaction,
+ * in sequence order; throwing rolls the batch back so it is published again on the next run.
+ */
+public interface MessageChangeSink {
+
+    void publish(List<MessageChange> changes);
+}
@@ -0,0 +1,166 @@
+package com.example.api.outbox;
+
+import com.example.api.dto.MessageChange;
+import com.example.api.dto.MessageSummary;
+import com.example.api.model.Message;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records message changes in the {@code message_outbox} table. Writes join the caller's
+ * transaction, so a change is recorded if and only if the mutation commits. Rows get their feed
+ * sequence number when the relay publishes them, and only numbered rows are served as changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageOutbox {
+
+    private static final String INSERT_CHANGE = """
+            INSERT INTO message_outbox (change_type, message_id, payload, occurred_at) VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_CHANGES_AFTER = """
+            SELECT sequence_number, change_type, message_id, payload, occurred_at FROM message_outbox
+            WHERE sequence_number > ? ORDER BY sequence_number LIMIT ?
+            """;
+
+    private static final String SELECT_PENDING = """
+            SELECT id, change_type, message_id, payload, occurred_at FROM message_outbox
+            WHERE published_at IS NULL ORDER BY id LIMIT ?
+            """;
+
+    private static final String SELECT_LAST_SEQUENCE_NUMBER = "SELECT MAX(sequence_number) FROM message_outbox";
+
+    private static final String MARK_PUBLISHED = """
+            UPDATE message_outbox SET sequence_number = ?, published_at = ? WHERE id = ? AND published_at IS NULL
+            """;
+
+    // Keeps the last published change, whose sequence number the next publication continues from
+    private static final String DELETE_PUBLISHED = """
+            DELETE FROM message_outbox WHERE id IN (
+                SELECT id FROM message_outbox
+                WHERE published_at < ? AND sequence_number < (SELECT MAX(sequence_number) FROM message_outbox)
+                ORDER BY published_at, id LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public void recordCreated(List<Message> messages) {
+        var occurredAt = LocalDateTime.now();
+        List<Object[]> batch = messages.stream()
+                .map(message -> row(MessageChange.Type.CREATED, message.getId(), payload(message), occurredAt))
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, batch);
+    }
+
+    public void recordUpdated(Message message) {
+        jdbcTemplate.update(INSERT_CHANGE,
+                row(MessageChange.Type.UPDATED, message.getId(), payload(message), LocalDateTime.now()));
+    }
+
+    public void recordUpdated(List<Message> messages) {
+        var occurredAt = LocalDateTime.now();
+        List<Object[]> batch = messages.stream()
+                .map(message -> row(MessageChange.Type.UPDATED, message.getId(), payload(message), occurredAt))
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, batch);
+    }
+
+    public void recordDeleted(UUID id) {
+        jdbcTemplate.update(INSERT_CHANGE, row(MessageChange.Type.DELETED, id, null, LocalDateTime.now()));
+    }
+
+    /**
+     * Published changes with a sequence number above {@code since}, in sequence order. Reads the
+     * unique sequence number index from the first row after the cursor, like any keyset page.
+     */
+    public List<MessageChange> changesAfter(long since, int limit) {
+        return jdbcTemplate.query(SELECT_CHANGES_AFTER,
+                (resultSet, rowNum) -> change(resultSet, resultSet.getLong("sequence_number")), since, limit);
+    }
+
+    /**
+     * Numbers the oldest unpublished changes after the last published one and marks them
+     * published. Must run in the transaction that hands the changes to the sink, so a failed
+     * publication leaves them pending. Throws when another relay published some of them first.
+     */
+    public List<MessageChange> publishPending(int limit) {
+        List<PendingChange> pending = jdbcTemplate.query(SELECT_PENDING,
+                (resultSet, rowNum) -> new PendingChange(resultSet.getLong("id"), change(resultSet, 0)), limit);
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        var lastSequenceNumber = jdbcTemplate.queryForObject(SELECT_LAST_SEQUENCE_NUMBER, Long.class);
+        var sequenceNumber = lastSequenceNumber == null ? 0L : lastSequenceNumber;
+        var publishedAt = LocalDateTime.now();
+        var changes = new ArrayList<MessageChange>(pending.size());
+        var batch = new ArrayList<Object[]>(pending.size());
+        for (var pendingChange : pending) {
+            sequenceNumber++;
+            changes.add(pendingChange.change().withSequence(sequenceNumber));
+            batch.add(new Object[]{sequenceNumber, publishedAt, pendingChange.id()});
+        }
+        // A concurrent relay either marked a row first or took the same numbers, failing the unique constraint
+        var updatedRows = jdbcTemplate.batchUpdate(MARK_PUBLISHED, batch);
+        if (Arrays.stream(updatedRows).anyMatch(count -> count == 0)) {
+            throw new OptimisticLockingFailureException("Message changes were published by another relay");
+        }
+        return changes;
+    }
+
+    /**
+     * Deletes up to {@code limit} changes published before {@code before}, oldest first, and
+     * returns how many were deleted. The change feed no longer serves them.
+     */
+    public int prunePublished(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(DELETE_PUBLISHED, before, limit);
+    }
+
+    private String payload(Message message) {
+        return payload(objectMapper, message);
+    }
+
+    static String payload(ObjectMapper objectMapper, Message message) {
+        try {
+            return objectMapper.writeValueAsString(MessageSummary.of(message));
+        } catch (JsonProcessingException jsonProcessingException) {
+            throw new IllegalStateException("Could not serialize message " + message.getId(), jsonProcessingException);
+        }
+    }
+
+    private MessageChange change(ResultSet resultSet, long sequenceNumber) throws SQLException {
+        var payload = resultSet.getString("payload");
+        try {
+            return new MessageChange(
+                    sequenceNumber,
+                    MessageChange.Type.valueOf(resultSet.getString("change_type")),
+                    resultSet.getObject("message_id", UUID.class),
+                    resultSet.getObject("occurred_at", LocalDateTime.class),
+                    payload == null ? null : objectMapper.readValue(payload, MessageSummary.class));
+        } catch (JsonProcessingException jsonProcessingException) {
+            throw new IllegalStateException("Could not read message change payload", jsonProcessingException);
+        }
+    }
+
+    private static Object[] row(MessageChange.Type type, UUID messageId, String payload, LocalDateTime occurredAt) {
+        return new Object[]{type.name(), messageId, payload, occurredAt};
+    }
+
+    private record PendingChange(long id, MessageChange change) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.api.outbox;
+
+import com.example.api.config.MessageOutboxProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Moves recorded changes from the outbox to the sink in batches of
+ * {@code message.outbox.batch-size}, until none are pending. Changes are published at least once:
+ * a batch that fails to commit after reaching the sink is published again. Afterwards, changes
+ * published longer than {@code message.outbox.retention} ago are deleted in batches of the same size.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageOutboxRelay {
+
+    private final MessageOutbox messageOutbox;
+
+    private final MessageChangeSink changeSink;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final MessageOutboxProperties outboxProperties;
+
+    private ScheduledFuture<?> relayTask;
+
+    @PostConstruct
+    void scheduleRelay() {
+        relayTask = taskScheduler.scheduleWithFixedDelay(this::relay, outboxProperties.relayInterval());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relayTask.cancel(false);
+        relay();
+    }
+
+    /**
+     * Returns the number of changes published.
+     */
+    public synchronized int relay() {
+        var relayed = 0;
+        try {
+            int published;
+            do {
+                published = transactionTemplate.execute(status -> {
+                    var changes = messageOutbox.publishPending(outboxProperties.batchSize());
+                    if (!changes.isEmpty()) {
+                        changeSink.publish(changes);
+                    }
+                    return changes.size();
+                });
+                relayed += published;
+            } while (published == outboxProperties.batchSize());
+            prune();
+        } catch (RuntimeException exception) {
+            log.warn("Could not relay message changes, retrying on next run", exception);
+        }
+        return relayed;
+    }
+
+    private void prune() {
+        if (outboxProperties.retention().isZero()) {
+            return;
+        }
+        var before = LocalDateTime.now().minus(outboxProperties.retention());
+        int pruned;
+        do {
+            pruned = messageOutbox.prunePublished(before, outboxProperties.batchSize());
+        } while (pruned == outboxProperties.batchSize());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.api.outbox;
+
+import com.example.api.dto.MessageChange;
+import com.example.api.model.Message;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records message changes of the reactive stack in the {@code message_outbox} table, like
+ * {@link MessageOutbox}. Statements run on the R2DBC connection of the caller's transaction, so a
+ * change is recorded if and only if the mutation commits; the same relay publishes them.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveMessageOutbox {
+
+    private static final String INSERT_CHANGE = """
+            INSERT INTO message_outbox (change_type, message_id, payload, occurred_at)
+            VALUES (:changeType, :messageId, :payload, :occurredAt)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    private final ObjectMapper objectMapper;
+
+    public Mono<Void> recordCreated(List<Message> messages) {
+        var occurredAt = LocalDateTime.now();
+        return Flux.fromIterable(messages)
+                .concatMap(message -> insert(MessageChange.Type.CREATED, message.getId(),
+                        MessageOutbox.payload(objectMapper, message), occurredAt))
+                .then();
+    }
+
+    public Mono<Void> recordUpdated(Message message) {
+        return insert(MessageChange.Type.UPDATED, message.getId(),
+                MessageOutbox.payload(objectMapper, message), LocalDateTime.now())
+                .then();
+    }
+
+    public Mono<Void> recordDeleted(UUID id) {
+        return insert(MessageChange.Type.DELETED, id, null, LocalDateTime.now()).then();
+    }
+
+    private Mono<Long> insert(MessageChange.Type type, UUID messageId, String payload, LocalDateTime occurredAt) {
+        var spec = databaseClient.sql(INSERT_CHANGE)
+                .bind("changeType", type.name())
+                .bind("messageId", messageId)
+                .bind("occurredAt", occurredAt);
+        spec = payload == null ? spec.bindNull("payload", String.class) : spec.bind("payload", payload);
+        return spec.fetch().rowsUpdated();
+    }
+}
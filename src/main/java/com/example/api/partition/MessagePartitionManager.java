@@ -0,0 +1,200 @@
+package com.example.api.partition;
+
+import com.example.api.config.MessagePartitionProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Keeps the monthly partitions of the PostgreSQL {@code message} table: creates the partitions for
+ * the current month and {@code months-ahead} more, and drops the partitions that ended more than
+ * {@code retention} ago. Dropping a partition removes its messages without deleting row by row; the
+ * partition is detached concurrently first, so reads and writes of the other months never wait on it.
+ * Messages dated past the newest partition are rejected, so the service does not start, and reports
+ * itself down, while the newest partition does not reach next month.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "message.partitions.enabled", havingValue = "true")
+public class MessagePartitionManager extends AbstractHealthIndicator {
+
+    private static final String CREATE_PARTITION = "SELECT create_message_partition(?)";
+
+    // Also lists monthly tables a failed run left detached, or still detaching, so the next run finishes them
+    private static final String SELECT_PARTITIONS = """
+            SELECT c.relname, i.inhrelid IS NOT NULL AS attached, COALESCE(i.inhdetachpending, false) AS detach_pending
+            FROM pg_class c LEFT JOIN pg_inherits i ON i.inhrelid = c.oid AND i.inhparent = 'message'::regclass
+            WHERE c.relkind = 'r' AND c.relname ~ '^message_[0-9]{4}_[0-9]{2}$'
+              AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'message'::regclass)
+            """;
+
+    private static final String SELECT_NEWEST_PARTITION = """
+            SELECT MAX(c.relname) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'message'::regclass AND NOT i.inhdetachpending AND c.relname ~ '^message_[0-9]{4}_[0-9]{2}$'
+            """;
+
+    // One outbox row per dropped message, written in the drop transaction: a month of a million messages
+    // holds that transaction for a million inserts and leaves the relay a million changes to publish
+    private static final String RECORD_DELETED = """
+            INSERT INTO message_outbox (change_type, message_id, payload, occurred_at)
+            SELECT 'DELETED', id, NULL, ? FROM %s
+            """;
+
+    private static final String SUBTRACT_USER_MESSAGE_COUNTS = """
+            UPDATE user_message_count c SET message_count = c.message_count - p.message_count
+            FROM (SELECT username, COUNT(*) AS message_count FROM %s GROUP BY username) p
+            WHERE c.username = p.username
+            """;
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("'message_'yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache messageCache;
+
+    private final TaskScheduler taskScheduler;
+
+    private final MessagePartitionProperties partitionProperties;
+
+    private final Clock clock;
+
+    private ScheduledFuture<?> maintenanceTask;
+
+    @Autowired
+    public MessagePartitionManager(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            Cache messageCache,
+            TaskScheduler taskScheduler,
+            MessagePartitionProperties partitionProperties) {
+        this(jdbcTemplate, transactionTemplate, messageCache, taskScheduler, partitionProperties,
+                Clock.systemDefaultZone());
+    }
+
+    MessagePartitionManager(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            Cache messageCache,
+            TaskScheduler taskScheduler,
+            MessagePartitionProperties partitionProperties,
+            Clock clock) {
+        super("Could not find the newest message partition");
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.messageCache = messageCache;
+        this.taskScheduler = taskScheduler;
+        this.partitionProperties = partitionProperties;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void scheduleMaintenance() {
+        maintain();
+        var newestPartition = newestPartition();
+        if (!reachesNextMonth(newestPartition)) {
+            throw new IllegalStateException("The newest message partition, %s, does not reach next month"
+                    .formatted(newestPartition));
+        }
+        var checkInterval = partitionProperties.checkInterval();
+        maintenanceTask = taskScheduler.scheduleWithFixedDelay(this::maintain, clock.instant().plus(checkInterval),
+                checkInterval);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        maintenanceTask.cancel(false);
+    }
+
+    public synchronized void maintain() {
+        try {
+            createUpcomingPartitions();
+            dropExpiredPartitions();
+        } catch (DataAccessException dataAccessException) {
+            // Partitions are created months ahead, so the next run has plenty of time to retry
+            log.warn("Could not maintain the message partitions", dataAccessException);
+        }
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        var newestPartition = newestPartition();
+        var health = reachesNextMonth(newestPartition) ? builder.up() : builder.down();
+        health.withDetail("newestPartition", String.valueOf(newestPartition));
+    }
+
+    /**
+     * Month of the newest attached monthly partition, or null when there is none.
+     */
+    YearMonth newestPartition() {
+        var name = jdbcTemplate.queryForObject(SELECT_NEWEST_PARTITION, String.class);
+        return name == null ? null : YearMonth.parse(name, PARTITION_MONTH);
+    }
+
+    private boolean reachesNextMonth(YearMonth newestPartition) {
+        return newestPartition != null && !newestPartition.isBefore(YearMonth.now(clock).plusMonths(1));
+    }
+
+    void createUpcomingPartitions() {
+        var month = YearMonth.now(clock);
+        for (int offset = 0; offset <= partitionProperties.monthsAhead(); offset++) {
+            jdbcTemplate.queryForObject(CREATE_PARTITION, String.class, month.plusMonths(offset).atDay(1));
+        }
+    }
+
+    void dropExpiredPartitions() {
+        if (partitionProperties.retention().isZero()) {
+            return;
+        }
+        var cutoff = LocalDate.now(clock).minus(partitionProperties.retention());
+        List<Partition> partitions = jdbcTemplate.query(SELECT_PARTITIONS, (resultSet, rowNum) -> new Partition(
+                resultSet.getString("relname"),
+                resultSet.getBoolean("attached"),
+                resultSet.getBoolean("detach_pending")));
+        partitions.stream()
+                .filter(partition -> !YearMonth.parse(partition.name(), PARTITION_MONTH).plusMonths(1).atDay(1).isAfter(cutoff))
+                .sorted(Comparator.comparing(Partition::name))
+                .forEach(this::dropPartition);
+    }
+
+    private void dropPartition(Partition partition) {
+        var name = partition.name();
+        // Runs outside a transaction: a concurrent detach only waits for the queries already reading the partition
+        if (partition.detachPending()) {
+            jdbcTemplate.execute("ALTER TABLE message DETACH PARTITION " + name + " FINALIZE");
+        } else if (partition.attached()) {
+            jdbcTemplate.execute("ALTER TABLE message DETACH PARTITION " + name + " CONCURRENTLY");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(RECORD_DELETED.formatted(name), LocalDateTime.now(clock));
+            jdbcTemplate.update(SUBTRACT_USER_MESSAGE_COUNTS.formatted(name));
+            jdbcTemplate.execute("DROP TABLE " + name);
+        });
+        // Cached messages of the partition would outlive it until their time to live
+        messageCache.clear();
+        log.info("Dropped message partition {} past the {} retention", name, partitionProperties.retention());
+    }
+
+    record Partition(String name, boolean attached, boolean detachPending) {
+    }
+}
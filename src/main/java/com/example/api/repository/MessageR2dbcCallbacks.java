@@ -0,0 +1,32 @@
+package com.example.api.repository;
+
+import com.example.api.model.Message;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.r2dbc.mapping.event.AfterConvertCallback;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the JPA lifecycle hooks of {@link Message} when it is written and read through R2DBC.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MessageR2dbcCallbacks implements BeforeConvertCallback<Message>, AfterConvertCallback<Message> {
+
+    @Override
+    public Publisher<Message> onBeforeConvert(Message message, SqlIdentifier table) {
+        if (message.isNew()) {
+            message.prePersist();
+        }
+        return Mono.just(message);
+    }
+
+    @Override
+    public Publisher<Message> onAfterConvert(Message message, SqlIdentifier table) {
+        message.markPersisted();
+        return Mono.just(message);
+    }
+}
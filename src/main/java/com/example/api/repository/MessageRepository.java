@@ -1,17 +1,160 @@
 package com.example.api.repository;
 
+import com.example.api.dto.MessageSummary;
 import com.example.api.model.Message;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 public interface MessageRepository extends JpaRepository<Message, UUID> {
 
-    @Query("SELECT m FROM Message m ORDER BY m.createdAt DESC")
-    Page<Message> listMessages(Pageable pageable);
+    @Query(value = """
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            ORDER BY m.createdAt DESC, m.id DESC
+            """,
+            countQuery = "SELECT COUNT(m) FROM Message m")
+    Page<MessageSummary> listMessages(Pageable pageable);
+
+    // Same page as listMessages, fetching one extra row instead of running the count query
+    @Query("""
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    Slice<MessageSummary> sliceMessages(Pageable pageable);
+
+    @Query("""
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<MessageSummary> scrollMessages(Limit limit);
+
+    @Query("""
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            WHERE m.createdAt < :createdAt
+               OR (m.createdAt = :createdAt AND m.id < :id)
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<MessageSummary> scrollMessages(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    @Query("""
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            WHERE m.username = :username
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<MessageSummary> scrollUserMessages(@Param("username") String username, Limit limit);
+
+    @Query("""
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            WHERE m.username = :username
+              AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id))
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<MessageSummary> scrollUserMessages(
+            @Param("username") String username,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    @Query("""
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            WHERE m.createdAt > :createdAt
+               OR (m.createdAt = :createdAt AND m.id > :id)
+            ORDER BY m.createdAt ASC, m.id ASC
+            """)
+    List<MessageSummary> listMessagesAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    /**
+     * Reads every message through a forward-only cursor, oldest first. The projection leaves no
+     * entities in the persistence context, and PostgreSQL only honours the fetch size inside a
+     * transaction, so callers must close the stream within one.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.example.api.dto.MessageSummary(
+                m.id, m.username, m.content, m.createdAt, m.updatedAt, m.likeCount)
+            FROM Message m
+            ORDER BY m.createdAt ASC, m.id ASC
+            """)
+    Stream<MessageSummary> streamMessages();
+
+    @Query("SELECT m.id FROM Message m WHERE m.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Message m SET m.content = :content, m.updatedAt = :updatedAt, m.version = m.version + 1
+            WHERE m.id = :id
+            """)
+    int updateMessage(
+            @Param("id") UUID id,
+            @Param("content") String content,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Message m SET m.content = :content, m.updatedAt = :updatedAt, m.version = m.version + 1
+            WHERE m.id = :id AND m.version = :version
+            """)
+    int updateMessage(
+            @Param("id") UUID id,
+            @Param("content") String content,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("version") long version);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Message m SET m.likeCount = m.likeCount + :likes, m.version = m.version + 1 WHERE m.id = :id")
+    int addLikes(@Param("id") UUID id, @Param("likes") int likes);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Message m WHERE m.id = :id")
+    int deleteMessage(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Message m WHERE m.id = :id AND m.version = :version")
+    int deleteMessage(@Param("id") UUID id, @Param("version") long version);
 }
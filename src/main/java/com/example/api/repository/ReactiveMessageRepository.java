@@ -0,0 +1,60 @@
+package com.example.api.repository;
+
+import com.example.api.dto.MessageSummary;
+import com.example.api.model.Message;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ReactiveMessageRepository extends R2dbcRepository<Message, UUID> {
+
+    @Query("""
+            SELECT id, username, content, created_at, updated_at, like_count
+            FROM message
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """)
+    Flux<MessageSummary> listMessages(@Param("limit") int limit, @Param("offset") long offset);
+
+    @Query("""
+            SELECT id, username, content, created_at, updated_at, like_count
+            FROM message
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """)
+    Flux<MessageSummary> scrollMessages(@Param("limit") int limit);
+
+    @Query("""
+            SELECT id, username, content, created_at, updated_at, like_count
+            FROM message
+            WHERE created_at < :createdAt
+               OR (created_at = :createdAt AND id < :id)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """)
+    Flux<MessageSummary> scrollMessages(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE message SET content = :content, updated_at = :updatedAt, version = version + 1 WHERE id = :id")
+    Mono<Integer> updateMessage(
+            @Param("id") UUID id,
+            @Param("content") String content,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE message SET like_count = like_count + :likes, version = version + 1 WHERE id = :id")
+    Mono<Integer> addLikes(@Param("id") UUID id, @Param("likes") int likes);
+
+    @Modifying
+    @Query("DELETE FROM message WHERE id = :id")
+    Mono<Integer> deleteMessage(@Param("id") UUID id);
+}
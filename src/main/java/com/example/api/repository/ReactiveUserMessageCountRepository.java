@@ -0,0 +1,28 @@
+package com.example.api.repository;
+
+import com.example.api.model.UserMessageCount;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveUserMessageCountRepository extends R2dbcRepository<UserMessageCount, String> {
+
+    @Modifying
+    @Query("UPDATE user_message_count SET message_count = message_count + :delta WHERE username = :username")
+    Mono<Integer> addMessages(@Param("username") String username, @Param("delta") long delta);
+
+    @Modifying
+    @Query("INSERT INTO user_message_count (username, message_count) VALUES (:username, :count)")
+    Mono<Integer> createCount(@Param("username") String username, @Param("count") long count);
+
+    @Modifying
+    @Query("""
+            UPDATE user_message_count SET message_count = message_count - 1
+            WHERE username = (SELECT username FROM message WHERE id = :id)
+            """)
+    Mono<Integer> removeMessage(@Param("id") UUID id);
+}
@@ -0,0 +1,32 @@
+package com.example.api.repository;
+
+import com.example.api.model.UserMessageCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+public interface UserMessageCountRepository extends JpaRepository<UserMessageCount, String> {
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMessageCount c SET c.messageCount = c.messageCount + :delta WHERE c.username = :username")
+    int addMessages(@Param("username") String username, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO user_message_count (username, message_count) VALUES (:username, :count)",
+            nativeQuery = true)
+    int createCount(@Param("username") String username, @Param("count") long count);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE UserMessageCount c SET c.messageCount = c.messageCount - 1
+            WHERE c.username = (SELECT m.username FROM Message m WHERE m.id = :id)
+            """)
+    int removeMessage(@Param("id") UUID id);
+}
@@ -0,0 +1,48 @@
+package com.example.api.search;
+
+import com.example.api.dto.MessageSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Searches the PostgreSQL {@code search_vector} column through its GIN index. The column is
+ * generated from username and content, so the index follows every insert, update and delete.
+ */
+@Component
+@ConditionalOnProperty(name = "message.search-index", havingValue = "full-text", matchIfMissing = true)
+@RequiredArgsConstructor
+public class FullTextMessageSearch implements MessageSearch {
+
+    private static final String SEARCH = """
+            SELECT id, username, content, created_at, updated_at, like_count
+            FROM message
+            WHERE search_vector @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, created_at DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final RowMapper<MessageSummary> ROW_MAPPER = new DataClassRowMapper<>(MessageSummary.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<MessageSummary> search(SearchQuery query, int limit, long offset) {
+        // Terms only hold letters and digits, so they cannot inject tsquery operators
+        var tsquery = query.terms().stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        var parameters = new MapSqlParameterSource()
+                .addValue("query", tsquery)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        return jdbcTemplate.query(SEARCH, parameters, ROW_MAPPER);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.api.search;
+
+import com.example.api.dto.MessageSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Portable fallback that scans the table with {@code LIKE}, for databases without a full-text
+ * index such as the H2 test database. Username matches rank above content matches.
+ */
+@Component
+@ConditionalOnProperty(name = "message.search-index", havingValue = "like")
+@RequiredArgsConstructor
+public class LikeMessageSearch implements MessageSearch {
+
+    private static final RowMapper<MessageSummary> ROW_MAPPER = new DataClassRowMapper<>(MessageSummary.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<MessageSummary> search(SearchQuery query, int limit, long offset) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        var conditions = new ArrayList<String>();
+        var ranks = new ArrayList<String>();
+        for (int index = 0; index < query.terms().size(); index++) {
+            var term = query.terms().get(index);
+            parameters.addValue("word" + index, term + "%");
+            parameters.addValue("inner" + index, "% " + term + "%");
+            var username = "(LOWER(username) LIKE :word%1$d OR LOWER(username) LIKE :inner%1$d)".formatted(index);
+            var content = "(LOWER(content) LIKE :word%1$d OR LOWER(content) LIKE :inner%1$d)".formatted(index);
+            conditions.add("(" + username + " OR " + content + ")");
+            ranks.add("CASE WHEN " + username + " THEN 2 ELSE 1 END");
+        }
+        var sql = """
+                SELECT id, username, content, created_at, updated_at, like_count
+                FROM message
+                WHERE %s
+                ORDER BY %s DESC, created_at DESC, id DESC
+                LIMIT :limit OFFSET :offset
+                """.formatted(String.join(" AND ", conditions), String.join(" + ", ranks));
+        return jdbcTemplate.query(sql, parameters, ROW_MAPPER);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.api.search;
+
+import com.example.api.dto.MessageSummary;
+
+import java.util.List;
+
+public interface MessageSearch {
+
+    /**
+     * Returns the messages matching every term, most relevant first and newest first among
+     * equally relevant ones.
+     */
+    List<MessageSummary> search(SearchQuery query, int limit, long offset);
+}
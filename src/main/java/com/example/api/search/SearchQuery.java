@@ -0,0 +1,27 @@
+package com.example.api.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Search text split into lower-case terms of letters and digits. Every term must match, as a
+ * prefix of a word in the username or content.
+ */
+public record SearchQuery(List<String> terms) {
+
+    static final int MAX_TERMS = 8;
+
+    public static SearchQuery parse(String text) {
+        var terms = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_TERMS)
+                .toList();
+        return new SearchQuery(terms);
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+}
@@ -1,20 +1,76 @@
 package com.example.api.service;
 
+import com.example.api.count.CountMode;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageChangeSlice;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSlice;
+import com.example.api.dto.MessageSummary;
+import com.example.api.export.MessageExportWriter;
 import com.example.api.model.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface MessageService {
 
     Message registerMessage(Message message);
 
+    List<BatchItemResult> registerMessages(List<Message> messages);
+
+    /**
+     * Saves messages that were already validated and given an id, keeping that id.
+     */
+    List<BatchItemResult> saveMessages(List<Message> messages);
+
+    /**
+     * Saves one message that was already validated and given an id, keeping that id.
+     *
+     * @throws org.springframework.dao.DataAccessException when the message could not be saved
+     */
+    Message saveMessage(Message message);
+
+    /**
+     * The ids among {@code ids} of stored messages, read from the primary without the cache.
+     */
+    Set<UUID> findStoredIds(Collection<UUID> ids);
+
     Message getMessage(UUID id);
 
     Message updateMessage(UUID is, Message updatedMessage);
 
+    Message updateMessage(UUID id, Message updatedMessage, long expectedVersion);
+
     boolean deleteMessage(UUID id);
 
-    Page<Message> listMessages(Pageable pageable);
+    boolean deleteMessage(UUID id, long expectedVersion);
+
+    boolean likeMessage(UUID id);
+
+    Page<MessageSummary> listMessages(Pageable pageable);
+
+    Page<MessageSummary> listMessages(Pageable pageable, CountMode countMode);
+
+    MessageSlice scrollMessages(MessageCursor cursor, int size);
+
+    List<MessageSummary> listMessagesAfter(MessageCursor cursor, int size);
+
+    MessageSlice scrollUserMessages(String username, MessageCursor cursor, int size);
+
+    long countUserMessages(String username);
+
+    Slice<MessageSummary> searchMessages(String query, Pageable pageable);
+
+    long exportMessages(MessageExportWriter writer) throws IOException;
+
+    /**
+     * Published changes with a sequence number above {@code since}, oldest first.
+     */
+    MessageChangeSlice listChanges(long since, int size);
 }
@@ -1,14 +1,58 @@
 package com.example.api.service;
 
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.config.MessagePageProperties;
+import com.example.api.count.ApproximateMessageCount;
+import com.example.api.count.CountMode;
+import com.example.api.datasource.ReplicaRoutingDataSource;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageChangeSlice;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSlice;
+import com.example.api.dto.MessageSummary;
+import com.example.api.event.MessageCreatedEvent;
+import com.example.api.event.MessageDeletedEvent;
 import com.example.api.exception.MessageNotFoundException;
+import com.example.api.exception.MessageVersionConflictException;
+import com.example.api.export.MessageExportWriter;
+import com.example.api.id.IdGenerator;
+import com.example.api.likes.LikeCounter;
 import com.example.api.model.Message;
+import com.example.api.model.UserMessageCount;
+import com.example.api.outbox.MessageOutbox;
 import com.example.api.repository.MessageRepository;
+import com.example.api.repository.UserMessageCountRepository;
+import com.example.api.search.MessageSearch;
+import com.example.api.search.SearchQuery;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -16,38 +60,359 @@ public class MessageServiceImpl implements MessageService {
 
     private final MessageRepository messageRepository;
 
+    private final IdGenerator idGenerator;
+
+    private final Validator validator;
+
+    private final MessageBatchProperties batchProperties;
+
+    private final MessagePageProperties pageProperties;
+
+    private final Cache messageCache;
+
+    private final LikeCounter likeCounter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MessageSearch messageSearch;
+
+    private final UserMessageCountRepository userMessageCountRepository;
+
+    private final ApproximateMessageCount approximateMessageCount;
+
+    private final MessageOutbox messageOutbox;
+
+    private final TransactionTemplate transactionTemplate;
+
     @Override
     public Message registerMessage(Message message) {
-        message.setId(UUID.randomUUID());
-        return messageRepository.save(message);
+        message.setId(idGenerator.generate());
+        return saveMessage(message);
+    }
+
+    @Override
+    public Message saveMessage(Message message) {
+        var newMessage = inTransaction(status -> {
+            markNew(List.of(message));
+            var savedMessage = messageRepository.save(message);
+            addUserMessages(List.of(savedMessage));
+            messageOutbox.recordCreated(List.of(savedMessage));
+            return savedMessage;
+        });
+        messageCache.put(newMessage.getId(), newMessage);
+        eventPublisher.publishEvent(new MessageCreatedEvent(MessageSummary.of(newMessage)));
+        return newMessage;
+    }
+
+    @Override
+    public List<BatchItemResult> registerMessages(List<Message> messages) {
+        var results = new BatchItemResult[messages.size()];
+        var accepted = new ArrayList<Integer>(messages.size());
+        for (int index = 0; index < messages.size(); index++) {
+            var message = messages.get(index);
+            var violations = validator.validate(message);
+            if (!violations.isEmpty()) {
+                results[index] = BatchItemResult.rejected(index, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            message.setId(idGenerator.generate());
+            accepted.add(index);
+        }
+        saveInChunks(messages, accepted, results);
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<BatchItemResult> saveMessages(List<Message> messages) {
+        var results = new BatchItemResult[messages.size()];
+        var indexes = new ArrayList<Integer>(messages.size());
+        for (int index = 0; index < messages.size(); index++) {
+            indexes.add(index);
+        }
+        saveInChunks(messages, indexes, results);
+        return Arrays.asList(results);
+    }
+
+    // Each chunk commits its own transaction, flushed as JDBC batches
+    private void saveInChunks(List<Message> messages, List<Integer> accepted, BatchItemResult[] results) {
+        for (int start = 0; start < accepted.size(); start += batchProperties.chunkSize()) {
+            var indexes = accepted.subList(start, Math.min(start + batchProperties.chunkSize(), accepted.size()));
+            var chunk = indexes.stream().map(messages::get).toList();
+            try {
+                inTransaction(status -> {
+                    markNew(chunk);
+                    var savedMessages = messageRepository.saveAll(chunk);
+                    addUserMessages(chunk);
+                    messageOutbox.recordCreated(chunk);
+                    return savedMessages;
+                });
+                chunk.forEach(message -> {
+                    messageCache.evict(message.getId());
+                    eventPublisher.publishEvent(new MessageCreatedEvent(MessageSummary.of(message)));
+                });
+                indexes.forEach(index -> results[index] = BatchItemResult.created(index, messages.get(index).getId()));
+            } catch (DataAccessException dataAccessException) {
+                indexes.forEach(index -> results[index] = BatchItemResult.failed(
+                        index, messages.get(index).getId(), "Message could not be saved"));
+            }
+        }
+    }
+
+    // A rolled back attempt leaves the messages marked persisted, so saving them again would merge instead of insert
+    private static void markNew(List<Message> messages) {
+        messages.forEach(message -> message.setPersisted(false));
+    }
+
+    @Override
+    public Set<UUID> findStoredIds(Collection<UUID> ids) {
+        // Read-write, so it runs on the primary and sees commits the replicas have not applied yet
+        return transactionTemplate.execute(status -> new HashSet<>(messageRepository.findExistingIds(ids)));
     }
 
     @Override
     public Message getMessage(UUID id) {
-        return messageRepository.findById(id)
-                .orElseThrow(() -> new MessageNotFoundException("Message not found"));
+        // The cache may hold a version loaded from a lagging replica, so clients that wrote recently skip it
+        // and do not fill it, or they would not see their own writes
+        if (ReplicaRoutingDataSource.isPinnedToPrimary()) {
+            return messageRepository.findById(id).orElseThrow(() -> new MessageNotFoundException("Message not found"));
+        }
+        // Unknown ids are cached as null so repeated misses skip the database too
+        var message = messageCache.get(id, () -> messageRepository.findById(id).orElse(null));
+        if (message == null) {
+            throw new MessageNotFoundException("Message not found");
+        }
+        return message;
     }
 
     @Override
     public Message updateMessage(UUID id, Message updatedMessage) {
-        var message = getMessage(id);
-        if (!message.getId().equals(updatedMessage.getId())){
-            throw  new MessageNotFoundException("Updated message does not have the correct ID");
+        if (!id.equals(updatedMessage.getId())) {
+            throw new MessageNotFoundException("Updated message does not have the correct ID");
         }
-        message.setContent(updatedMessage.getContent());
-        message.setUpdatedAt(updatedMessage.getUpdatedAt());
-        return messageRepository.save(message);
+        var message = transactionTemplate.execute(status -> {
+            var updatedRows = messageRepository.updateMessage(
+                    id, updatedMessage.getContent(), updatedMessage.getUpdatedAt());
+            if (updatedRows == 0) {
+                throw new MessageNotFoundException("Message not found");
+            }
+            return recordUpdated(id);
+        });
+        // Concurrent updates commit in any order, so the next read caches whichever version is current
+        messageCache.evict(id);
+        return message;
+    }
+
+    @Override
+    public Message updateMessage(UUID id, Message updatedMessage, long expectedVersion) {
+        if (!id.equals(updatedMessage.getId())) {
+            throw new MessageNotFoundException("Updated message does not have the correct ID");
+        }
+        var message = transactionTemplate.execute(status -> {
+            var updatedRows = messageRepository.updateMessage(
+                    id, updatedMessage.getContent(), updatedMessage.getUpdatedAt(), expectedVersion);
+            if (updatedRows == 0) {
+                throw notUpdated(id);
+            }
+            return recordUpdated(id);
+        });
+        messageCache.evict(id);
+        return message;
+    }
+
+    // Reads the updated row back in the same transaction, so the outbox records what was committed
+    private Message recordUpdated(UUID id) {
+        var message = messageRepository.findById(id)
+                .orElseThrow(() -> new MessageNotFoundException("Message not found"));
+        messageOutbox.recordUpdated(message);
+        return message;
     }
 
     @Override
     public boolean deleteMessage(UUID id) {
-        var message = getMessage(id);
-        messageRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Decremented first, so a delete that finds no row rolls the decrement back with it
+            userMessageCountRepository.removeMessage(id);
+            if (messageRepository.deleteMessage(id) == 0) {
+                throw new MessageNotFoundException("Message not found");
+            }
+            recordDeleted(id);
+        });
+        // Evicted after commit, so a concurrent read cannot cache the row again before it is gone
+        messageCache.evict(id);
+        return true;
+    }
+
+    @Override
+    public boolean deleteMessage(UUID id, long expectedVersion) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userMessageCountRepository.removeMessage(id);
+            if (messageRepository.deleteMessage(id, expectedVersion) == 0) {
+                throw notUpdated(id);
+            }
+            recordDeleted(id);
+        });
+        messageCache.evict(id);
         return true;
     }
 
+    private void recordDeleted(UUID id) {
+        messageOutbox.recordDeleted(id);
+        eventPublisher.publishEvent(new MessageDeletedEvent(id));
+    }
+
+    // Only reached when a conditional statement matched no row, to tell a stale version from a missing message
+    private RuntimeException notUpdated(UUID id) {
+        return messageRepository.existsById(id)
+                ? new MessageVersionConflictException("Message was modified")
+                : new MessageNotFoundException("Message not found");
+    }
+
+    @Override
+    public boolean likeMessage(UUID id) {
+        return likeCounter.increment(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MessageSummary> listMessages(Pageable pageable) {
+        return messageRepository.listMessages(capped(pageable));
+    }
+
     @Override
-    public Page<Message> listMessages(Pageable pageable) {
-        return messageRepository.listMessages(pageable);
+    @Transactional(readOnly = true)
+    public Page<MessageSummary> listMessages(Pageable requestedPageable, CountMode countMode) {
+        var pageable = capped(requestedPageable);
+        if (countMode == CountMode.EXACT) {
+            return messageRepository.listMessages(pageable);
+        }
+        var slice = messageRepository.sliceMessages(pageable);
+        var seen = pageable.isPaged() ? pageable.getOffset() + slice.getNumberOfElements() : slice.getNumberOfElements();
+        // A non-empty last page knows the exact total; otherwise the estimate must still cover the rows seen
+        var total = !slice.hasNext() && (slice.hasContent() || seen == 0)
+                ? seen
+                : Math.max(approximateMessageCount.get(), slice.hasNext() ? seen + 1 : seen);
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageSlice scrollMessages(MessageCursor cursor, int requestedSize) {
+        var size = capped(requestedSize);
+        // One extra row tells whether there is a next slice without a COUNT query
+        var limit = Limit.of(size + 1);
+        var messages = cursor == null
+                ? messageRepository.scrollMessages(limit)
+                : messageRepository.scrollMessages(cursor.createdAt(), cursor.id(), limit);
+        return toSlice(messages, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageSlice scrollUserMessages(String username, MessageCursor cursor, int requestedSize) {
+        var size = capped(requestedSize);
+        var limit = Limit.of(size + 1);
+        var messages = cursor == null
+                ? messageRepository.scrollUserMessages(username, limit)
+                : messageRepository.scrollUserMessages(username, cursor.createdAt(), cursor.id(), limit);
+        return toSlice(messages, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countUserMessages(String username) {
+        return userMessageCountRepository.findById(username)
+                .map(UserMessageCount::getMessageCount)
+                .orElse(0L);
+    }
+
+    private static MessageSlice toSlice(List<MessageSummary> messages, int size) {
+        var hasNext = messages.size() > size;
+        var content = hasNext ? messages.subList(0, size) : messages;
+        var nextCursor = hasNext ? MessageCursor.of(content.get(size - 1)).encode() : null;
+        return new MessageSlice(content, size, hasNext, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MessageSummary> listMessagesAfter(MessageCursor cursor, int size) {
+        return messageRepository.listMessagesAfter(cursor.createdAt(), cursor.id(), Limit.of(size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<MessageSummary> searchMessages(String query, Pageable requestedPageable) {
+        var pageable = capped(requestedPageable);
+        var searchQuery = SearchQuery.parse(query);
+        if (searchQuery.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        // One extra row tells whether there is a next page without counting every match
+        var messages = messageSearch.search(searchQuery, pageable.getPageSize() + 1, pageable.getOffset());
+        var hasNext = messages.size() > pageable.getPageSize();
+        var content = hasNext ? messages.subList(0, pageable.getPageSize()) : messages;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportMessages(MessageExportWriter writer) throws IOException {
+        long exported = 0;
+        try (var messages = messageRepository.streamMessages()) {
+            var iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageChangeSlice listChanges(long since, int requestedSize) {
+        var size = capped(requestedSize);
+        // One extra row tells whether there is a next slice without a COUNT query
+        var changes = messageOutbox.changesAfter(since, size + 1);
+        var hasNext = changes.size() > size;
+        var content = hasNext ? changes.subList(0, size) : changes;
+        var nextSince = content.isEmpty() ? since : content.get(content.size() - 1).sequence();
+        return new MessageChangeSlice(content, size, hasNext, nextSince);
+    }
+
+    // Larger pages are served at the maximum size, as Spring Data does for its pageable arguments
+    private int capped(int size) {
+        return Math.min(size, pageProperties.maxSize());
+    }
+
+    private Pageable capped(Pageable pageable) {
+        return pageable.isPaged() && pageable.getPageSize() > pageProperties.maxSize()
+                ? PageRequest.of(pageable.getPageNumber(), pageProperties.maxSize(), pageable.getSort())
+                : pageable;
+    }
+
+    private void addUserMessages(List<Message> messages) {
+        // Sorted so concurrent transactions lock the count rows in the same order
+        var counts = messages.stream().collect(
+                Collectors.groupingBy(Message::getUsername, TreeMap::new, Collectors.counting()));
+        counts.forEach((username, count) -> {
+            if (userMessageCountRepository.addMessages(username, count) == 0) {
+                userMessageCountRepository.createCount(username, count);
+            }
+        });
+    }
+
+    private <T> T inTransaction(TransactionCallback<T> action) {
+        try {
+            return transactionTemplate.execute(action);
+        } catch (DataIntegrityViolationException dataIntegrityViolationException) {
+            if (!UniqueViolations.isUniqueViolation(dataIntegrityViolationException)) {
+                throw dataIntegrityViolationException;
+            }
+            // Another first message of the same user created its count row concurrently; it exists now
+            return transactionTemplate.execute(action);
+        }
     }
 }
@@ -0,0 +1,30 @@
+package com.example.api.service;
+
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessagePage;
+import com.example.api.dto.MessageSlice;
+import com.example.api.model.Message;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ReactiveMessageService {
+
+    Mono<Message> registerMessage(Message message);
+
+    Mono<List<BatchItemResult>> registerMessages(List<Message> messages);
+
+    Mono<Message> getMessage(UUID id);
+
+    Mono<Message> updateMessage(UUID id, Message updatedMessage);
+
+    Mono<Boolean> deleteMessage(UUID id);
+
+    Mono<Boolean> likeMessage(UUID id);
+
+    Mono<MessagePage> listMessages(int page, int size);
+
+    Mono<MessageSlice> scrollMessages(MessageCursor cursor, int size);
+}
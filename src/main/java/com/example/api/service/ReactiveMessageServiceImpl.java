@@ -0,0 +1,229 @@
+package com.example.api.service;
+
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.config.MessageLikeProperties;
+import com.example.api.config.MessagePageProperties;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessagePage;
+import com.example.api.dto.MessageSlice;
+import com.example.api.exception.MessageNotFoundException;
+import com.example.api.id.IdGenerator;
+import com.example.api.likes.LikeCounter;
+import com.example.api.model.Message;
+import com.example.api.outbox.ReactiveMessageOutbox;
+import com.example.api.repository.ReactiveMessageRepository;
+import com.example.api.repository.ReactiveUserMessageCountRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveMessageServiceImpl implements ReactiveMessageService {
+
+    private final ReactiveMessageRepository messageRepository;
+
+    private final R2dbcEntityTemplate entityTemplate;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final IdGenerator idGenerator;
+
+    private final Validator validator;
+
+    private final MessageBatchProperties batchProperties;
+
+    private final MessageLikeProperties likeProperties;
+
+    private final MessagePageProperties pageProperties;
+
+    private final Cache messageCache;
+
+    private final LikeCounter likeCounter;
+
+    private final ReactiveUserMessageCountRepository userMessageCountRepository;
+
+    private final ReactiveMessageOutbox messageOutbox;
+
+    @Override
+    public Mono<Message> registerMessage(Message message) {
+        message.setId(idGenerator.generate());
+        return inTransaction(() -> entityTemplate.insert(message)
+                .flatMap(newMessage -> addUserMessages(List.of(newMessage))
+                        .then(messageOutbox.recordCreated(List.of(newMessage)))
+                        .thenReturn(newMessage)))
+                .doOnNext(newMessage -> messageCache.put(newMessage.getId(), newMessage));
+    }
+
+    @Override
+    public Mono<List<BatchItemResult>> registerMessages(List<Message> messages) {
+        var results = new BatchItemResult[messages.size()];
+        var accepted = new ArrayList<Integer>(messages.size());
+        for (int index = 0; index < messages.size(); index++) {
+            var message = messages.get(index);
+            var violations = validator.validate(message);
+            if (!violations.isEmpty()) {
+                results[index] = BatchItemResult.rejected(index, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            message.setId(idGenerator.generate());
+            accepted.add(index);
+        }
+
+        // Chunks are inserted one after another, each in its own transaction
+        return Flux.fromIterable(accepted)
+                .buffer(batchProperties.chunkSize())
+                .concatMap(indexes -> inTransaction(() -> Flux.fromIterable(indexes)
+                        .concatMap(index -> entityTemplate.insert(messages.get(index)))
+                        .collectList()
+                        .flatMap(newMessages -> addUserMessages(newMessages)
+                                .then(messageOutbox.recordCreated(newMessages))))
+                        .doOnSuccess(done -> indexes.forEach(index -> {
+                            messageCache.evict(messages.get(index).getId());
+                            results[index] = BatchItemResult.created(index, messages.get(index).getId());
+                        }))
+                        .onErrorResume(DataAccessException.class, dataAccessException -> {
+                            indexes.forEach(index -> results[index] = BatchItemResult.failed(
+                                    index, messages.get(index).getId(), "Message could not be saved"));
+                            return Mono.empty();
+                        }))
+                .then(Mono.fromSupplier(() -> Arrays.asList(results)));
+    }
+
+    @Override
+    public Mono<Message> getMessage(UUID id) {
+        // Unknown ids are cached as null so repeated misses skip the database too
+        var cached = messageCache.get(id);
+        if (cached != null) {
+            return cached.get() == null
+                    ? Mono.error(new MessageNotFoundException("Message not found"))
+                    : Mono.just((Message) cached.get());
+        }
+        return messageRepository.findById(id)
+                .doOnNext(message -> messageCache.put(id, message))
+                .switchIfEmpty(Mono.defer(() -> {
+                    messageCache.put(id, null);
+                    return Mono.error(new MessageNotFoundException("Message not found"));
+                }));
+    }
+
+    @Override
+    public Mono<Message> updateMessage(UUID id, Message updatedMessage) {
+        if (!id.equals(updatedMessage.getId())) {
+            return Mono.error(new MessageNotFoundException("Updated message does not have the correct ID"));
+        }
+        return messageRepository.updateMessage(id, updatedMessage.getContent(), updatedMessage.getUpdatedAt())
+                .flatMap(updatedRows -> {
+                    if (updatedRows == 0) {
+                        return Mono.<Message>error(new MessageNotFoundException("Message not found"));
+                    }
+                    // Read back in the same transaction, so the outbox records what was committed
+                    return messageRepository.findById(id)
+                            .switchIfEmpty(Mono.error(new MessageNotFoundException("Message not found")))
+                            .flatMap(message -> messageOutbox.recordUpdated(message).thenReturn(message));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(message -> messageCache.evict(id));
+    }
+
+    @Override
+    public Mono<Boolean> deleteMessage(UUID id) {
+        // Decremented first, so a delete that finds no row rolls the decrement back with it
+        return userMessageCountRepository.removeMessage(id)
+                .then(messageRepository.deleteMessage(id))
+                .flatMap(deletedRows -> {
+                    if (deletedRows == 0) {
+                        return Mono.<Boolean>error(new MessageNotFoundException("Message not found"));
+                    }
+                    return messageOutbox.recordDeleted(id).thenReturn(true);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> messageCache.evict(id));
+    }
+
+    @Override
+    public Mono<Boolean> likeMessage(UUID id) {
+        // The write-behind counter only touches memory, so it is safe to call on the event loop
+        if (likeProperties.writeBehind()) {
+            return Mono.fromSupplier(() -> likeCounter.increment(id));
+        }
+        return messageRepository.addLikes(id, 1)
+                .flatMap(updatedRows -> {
+                    if (updatedRows == 0) {
+                        return Mono.<Boolean>error(new MessageNotFoundException("Message not found"));
+                    }
+                    // A like bumps the version, so consumers of the feed need the new one as well
+                    return messageRepository.findById(id)
+                            .switchIfEmpty(Mono.error(new MessageNotFoundException("Message not found")))
+                            .flatMap(message -> messageOutbox.recordUpdated(message).thenReturn(true));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(liked -> messageCache.evict(id));
+    }
+
+    @Override
+    public Mono<MessagePage> listMessages(int page, int requestedSize) {
+        var size = Math.min(requestedSize, pageProperties.maxSize());
+        return Mono.zip(
+                messageRepository.listMessages(size, (long) page * size).collectList(),
+                messageRepository.count(),
+                (content, total) -> MessagePage.of(content, page, size, total));
+    }
+
+    @Override
+    public Mono<MessageSlice> scrollMessages(MessageCursor cursor, int requestedSize) {
+        var size = Math.min(requestedSize, pageProperties.maxSize());
+        // One extra row tells whether there is a next slice without a COUNT query
+        var messages = cursor == null
+                ? messageRepository.scrollMessages(size + 1)
+                : messageRepository.scrollMessages(cursor.createdAt(), cursor.id(), size + 1);
+        return messages.collectList().map(rows -> {
+            var hasNext = rows.size() > size;
+            var content = hasNext ? rows.subList(0, size) : rows;
+            var nextCursor = hasNext ? MessageCursor.of(content.get(size - 1)).encode() : null;
+            return new MessageSlice(content, size, hasNext, nextCursor);
+        });
+    }
+
+    private Mono<Void> addUserMessages(List<Message> messages) {
+        // Sorted so concurrent transactions lock the count rows in the same order
+        var counts = messages.stream().collect(
+                Collectors.groupingBy(Message::getUsername, TreeMap::new, Collectors.counting()));
+        return Flux.fromIterable(counts.entrySet())
+                .concatMap(count -> userMessageCountRepository.addMessages(count.getKey(), count.getValue())
+                        .flatMap(updatedRows -> updatedRows == 0
+                                ? userMessageCountRepository.createCount(count.getKey(), count.getValue())
+                                : Mono.just(updatedRows)))
+                .then();
+    }
+
+    private <T> Mono<T> inTransaction(Supplier<Mono<T>> action) {
+        // Another first message of the same user may create its count row concurrently; it exists on retry
+        return Mono.defer(action).as(transactionalOperator::transactional)
+                .retryWhen(Retry.max(1)
+                        .filter(UniqueViolations::isUniqueViolation)
+                        .onRetryExhaustedThrow((retrySpec, retrySignal) -> retrySignal.failure()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.api.service;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+
+/**
+ * Tells a unique key violation from other integrity violations, such as a NOT NULL column or a
+ * value too long, which fail the same way on every retry.
+ */
+final class UniqueViolations {
+
+    // SQL standard state for unique violations, used by PostgreSQL and H2
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private UniqueViolations() {
+    }
+
+    static boolean isUniqueViolation(Throwable exception) {
+        if (exception instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (var cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.api.stream;
+
+import com.example.api.config.MessageStreamProperties;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSummary;
+import com.example.api.event.MessageCreatedEvent;
+import com.example.api.service.MessageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans newly created messages out to Server-Sent Events subscribers. Each subscriber has its own
+ * bounded buffer drained by a fixed pool of {@code message.stream.workers} threads, so a slow client
+ * never blocks the request that created the message and a burst of subscribers does not start a
+ * thread each; when a buffer is full the configured overflow policy applies. A subscriber whose
+ * send blocks longer than {@code message.stream.send-timeout} is disconnected, and the pool gets a
+ * thread in place of the blocked one until the write returns, so stalled clients cannot hold every
+ * worker.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MessageStreamBus {
+
+    private static final int REPLAY_PAGE_SIZE = 100;
+
+    private static final Instant ABANDONED = Instant.MIN;
+
+    private final MessageService messageService;
+
+    private final MessageStreamProperties streamProperties;
+
+    private final Executor executor;
+
+    private final Clock clock;
+
+    private final Counter overflowCounter;
+
+    private final Counter stalledCounter;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public MessageStreamBus(
+            MessageService messageService,
+            MessageStreamProperties streamProperties,
+            MeterRegistry meterRegistry) {
+        this(messageService, streamProperties, meterRegistry, newExecutor(streamProperties.workers()),
+                Clock.systemDefaultZone());
+    }
+
+    MessageStreamBus(
+            MessageService messageService,
+            MessageStreamProperties streamProperties,
+            MeterRegistry meterRegistry,
+            Executor executor,
+            Clock clock) {
+        this.messageService = messageService;
+        this.streamProperties = streamProperties;
+        this.executor = executor;
+        this.clock = clock;
+        this.overflowCounter = Counter.builder("message.stream.overflow")
+                .tag("policy", streamProperties.overflowPolicy().name())
+                .register(meterRegistry);
+        this.stalledCounter = meterRegistry.counter("message.stream.stalled");
+        meterRegistry.gauge("message.stream.subscribers", subscribers, Set::size);
+    }
+
+    // Each subscriber queues at most its start and one drain, so the queue is bounded by the subscribers
+    private static ExecutorService newExecutor(int workers) {
+        var threadFactory = new CustomizableThreadFactory("message-stream-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    // A stalled send keeps its thread until the container times the write out
+    private synchronized void addWorker() {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + 1);
+            pool.setCorePoolSize(pool.getCorePoolSize() + 1);
+        }
+    }
+
+    private synchronized void removeWorker() {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            pool.setCorePoolSize(pool.getCorePoolSize() - 1);
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() - 1);
+        }
+    }
+
+    /**
+     * Registers the emitter for new messages. With a cursor, messages created after it are
+     * replayed first, up to {@code message.stream.max-replay}.
+     */
+    public void subscribe(SseEmitter emitter, MessageCursor lastEventId) {
+        var subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // Registered before the replay query so nothing committed in between is missed
+        subscribers.add(subscriber);
+        executor.execute(() -> subscriber.start(lastEventId));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        subscribers.forEach(subscriber -> subscriber.offer(event.message()));
+    }
+
+    // Runs before the web server shuts down gracefully, which would otherwise wait for every open stream
+    @EventListener(ContextClosedEvent.class)
+    void completeSubscribers() {
+        subscribers.forEach(Subscriber::shutdown);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<MessageSummary> buffer =
+                new ArrayBlockingQueue<>(streamProperties.bufferSize());
+
+        // Set while the replay or a drain owns the emitter; only one thread sends at a time
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+
+        // Messages sent by the replay, which may also be waiting in the buffer
+        private final Set<UUID> replayed = new HashSet<>();
+
+        // When the send in progress started, null between sends; ABANDONED once the bus gave up on it
+        private final AtomicReference<Instant> sendingSince = new AtomicReference<>();
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void start(MessageCursor lastEventId) {
+            try {
+                // Commits the response headers so the client sees the stream open before any message
+                sendComment("subscribed");
+                if (lastEventId != null) {
+                    replay(lastEventId);
+                }
+                drain();
+            } catch (RuntimeException exception) {
+                log.warn("Could not replay messages to stream subscriber", exception);
+                complete();
+            }
+        }
+
+        private void replay(MessageCursor cursor) {
+            var remaining = streamProperties.maxReplay();
+            while (remaining > 0 && !closed) {
+                var page = messageService.listMessagesAfter(cursor, Math.min(remaining, REPLAY_PAGE_SIZE));
+                for (var message : page) {
+                    send(message);
+                    replayed.add(message.id());
+                }
+                if (page.size() < Math.min(remaining, REPLAY_PAGE_SIZE)) {
+                    return;
+                }
+                cursor = MessageCursor.of(page.get(page.size() - 1));
+                remaining -= page.size();
+            }
+        }
+
+        void offer(MessageSummary message) {
+            if (closed || abandonIfStalled()) {
+                return;
+            }
+            while (!buffer.offer(message)) {
+                overflowCounter.increment();
+                if (streamProperties.overflowPolicy() == MessageStreamProperties.OverflowPolicy.DISCONNECT) {
+                    complete();
+                    return;
+                }
+                buffer.poll();
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                MessageSummary message;
+                while (!closed && (message = buffer.poll()) != null) {
+                    if (!replayed.contains(message.id())) {
+                        send(message);
+                    }
+                }
+                draining.set(false);
+                // An offer may have landed after the last poll but before the flag was cleared
+            } while (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void send(MessageSummary message) {
+            send(SseEmitter.event()
+                    .id(MessageCursor.of(message).encode())
+                    .name("message")
+                    .data(message, MediaType.APPLICATION_JSON));
+        }
+
+        private void sendComment(String comment) {
+            send(SseEmitter.event().comment(comment));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            sendingSince.set(clock.instant());
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException exception) {
+                // The client went away; the container completes the emitter
+                close();
+            } finally {
+                if (sendingSince.getAndSet(null) == ABANDONED) {
+                    removeWorker();
+                    complete();
+                }
+            }
+        }
+
+        private boolean abandonIfStalled() {
+            var since = sendingSince.get();
+            if (since == null || since == ABANDONED
+                    || !clock.instant().isAfter(since.plus(streamProperties.sendTimeout()))
+                    || !abandon(since)) {
+                return false;
+            }
+            stalledCounter.increment();
+            log.warn("Disconnected a stream subscriber whose send took longer than {}", streamProperties.sendTimeout());
+            return true;
+        }
+
+        // The emitter stays locked by the blocked send, so the sending thread completes it once the write returns
+        private boolean abandon(Instant since) {
+            if (!sendingSince.compareAndSet(since, ABANDONED)) {
+                return false;
+            }
+            close();
+            addWorker();
+            return true;
+        }
+
+        void shutdown() {
+            var since = sendingSince.get();
+            if (since == null || since == ABANDONED || !abandon(since)) {
+                complete();
+            }
+        }
+
+        void complete() {
+            close();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // Already completed
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+        }
+    }
+}
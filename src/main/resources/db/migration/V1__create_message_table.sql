@@ -0,0 +1,10 @@
+CREATE TABLE message
+(
+    id         UUID         NOT NULL,
+    username   VARCHAR(255) NOT NULL,
+    content    VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    like_count INTEGER      NOT NULL DEFAULT 0,
+    CONSTRAINT pk_message PRIMARY KEY (id)
+);
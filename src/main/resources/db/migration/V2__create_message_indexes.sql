@@ -0,0 +1,3 @@
+CREATE INDEX idx_message_created_at_id ON message (created_at DESC, id DESC);
+
+CREATE INDEX idx_message_username ON message (username);
@@ -0,0 +1,15 @@
+DROP INDEX idx_message_username;
+
+CREATE INDEX idx_message_username_created_at_id ON message (username, created_at DESC, id DESC);
+
+CREATE TABLE user_message_count
+(
+    username      VARCHAR(255) NOT NULL,
+    message_count BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT pk_user_message_count PRIMARY KEY (username)
+);
+
+INSERT INTO user_message_count (username, message_count)
+SELECT username, COUNT(*)
+FROM message
+GROUP BY username;
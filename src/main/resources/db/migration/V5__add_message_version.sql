@@ -0,0 +1 @@
+ALTER TABLE message ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+CREATE TABLE message_outbox
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    sequence_number BIGINT,
+    change_type     VARCHAR(16)   NOT NULL,
+    message_id      UUID          NOT NULL,
+    payload         VARCHAR(4096),
+    occurred_at     TIMESTAMP(6)  NOT NULL,
+    published_at    TIMESTAMP(6),
+    CONSTRAINT pk_message_outbox PRIMARY KEY (id),
+    CONSTRAINT uk_message_outbox_sequence_number UNIQUE (sequence_number)
+);
+
+CREATE INDEX idx_message_outbox_published_at_id ON message_outbox (published_at, id);
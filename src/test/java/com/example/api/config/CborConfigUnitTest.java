@@ -0,0 +1,49 @@
+package com.example.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborConfigUnitTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private ObjectMapper cborMapper;
+
+    @BeforeEach
+    void setup() {
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        cborMapper.registerModule(CborConfig.epochMillisModule(ZONE));
+    }
+
+    @Test
+    void shouldWriteTimestampInConfiguredZone() throws Exception {
+        // Arrange
+        var timestamp = LocalDateTime.of(2023, 1, 15, 0, 1, 0, 100_000_000);
+
+        // Act
+        var epochMillis = cborMapper.readTree(cborMapper.writeValueAsBytes(timestamp)).asLong();
+
+        // Assert
+        assertThat(Instant.ofEpochMilli(epochMillis)).isEqualTo(Instant.parse("2023-01-15T03:01:00.100Z"));
+    }
+
+    @Test
+    void shouldReadTimestampInConfiguredZoneTruncatedToMillis() throws Exception {
+        // Arrange
+        var timestamp = LocalDateTime.of(2023, 1, 15, 0, 1, 0, 123_456_789);
+
+        // Act
+        var read = cborMapper.readValue(cborMapper.writeValueAsBytes(timestamp), LocalDateTime.class);
+
+        // Assert
+        assertThat(read).isEqualTo(LocalDateTime.of(2023, 1, 15, 0, 1, 0, 123_000_000));
+    }
+}
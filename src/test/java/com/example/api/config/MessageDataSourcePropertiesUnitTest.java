@@ -0,0 +1,41 @@
+package com.example.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageDataSourcePropertiesUnitTest {
+
+    private static final List<MessageDataSourceProperties.Replica> REPLICAS =
+            List.of(new MessageDataSourceProperties.Replica("jdbc:postgresql://replica:5432/postgres", null, null));
+
+    @Test
+    void shouldAcceptWindowLongerThanWorstReplicaLag() {
+        // Act & Assert
+        assertThatCode(() -> newProperties(REPLICAS, Duration.ofSeconds(11))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenWindowDoesNotCoverWorstReplicaLag() {
+        // Act & Assert
+        assertThatThrownBy(() -> newProperties(REPLICAS, Duration.ofSeconds(10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("read-your-writes-window");
+    }
+
+    @Test
+    void shouldIgnoreWindowWithoutReplicas() {
+        // Act & Assert
+        assertThatCode(() -> newProperties(List.of(), Duration.ZERO)).doesNotThrowAnyException();
+    }
+
+    private static MessageDataSourceProperties newProperties(
+            List<MessageDataSourceProperties.Replica> replicas, Duration readYourWritesWindow) {
+        return new MessageDataSourceProperties(0, Duration.ofSeconds(5), replicas, Duration.ofSeconds(5),
+                Duration.ofSeconds(5), MessageDataSourceProperties.REPLICA_LAG_QUERY, readYourWritesWindow);
+    }
+}
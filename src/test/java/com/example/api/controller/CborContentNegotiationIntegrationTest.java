@@ -0,0 +1,119 @@
+package com.example.api.controller;
+
+import com.example.api.model.Message;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import io.restassured.config.EncoderConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+class CborContentNegotiationIntegrationTest {
+
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void shouldGetMessageAsCborWithEpochTimestamps() throws IOException {
+        var body = given()
+                .filters(new AllureRestAssured())
+                .accept(MediaType.APPLICATION_CBOR_VALUE)
+                .when()
+                .get("/messages/{id}", "cf9f5083-c5fb-4061-91cf-cd80eec30c89")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(startsWith(MediaType.APPLICATION_CBOR_VALUE))
+                .extract()
+                .asByteArray();
+
+        JsonNode message = cborMapper.readTree(body);
+        assertThat(message.get("username").asText()).isEqualTo("John");
+        assertThat(message.get("createdAt").isIntegralNumber()).isTrue();
+        assertThat(message.get("createdAt").asLong()).isEqualTo(
+                LocalDateTime.parse("2023-01-15T00:01:00.100").atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @Test
+    void shouldListMessagesAsCbor() throws IOException {
+        var body = given()
+                .filters(new AllureRestAssured())
+                .accept(MediaType.APPLICATION_CBOR_VALUE)
+                .when()
+                .get("/messages?page=0&size=10")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(startsWith(MediaType.APPLICATION_CBOR_VALUE))
+                .extract()
+                .asByteArray();
+
+        JsonNode page = cborMapper.readTree(body);
+        assertThat(page.get("content").isArray()).isTrue();
+        assertThat(page.get("content").get(0).get("updatedAt").isIntegralNumber()).isTrue();
+    }
+
+    @Test
+    void shouldAllowRegisterMessageFromCbor() throws IOException {
+        var payload = cborMapper.writeValueAsBytes(Map.of("username", "John", "content", "Hello, CBOR!"));
+
+        var body = given()
+                .filters(new AllureRestAssured())
+                // Binary bodies have no charset, which RestAssured would otherwise append
+                .config(RestAssured.config().encoderConfig(
+                        EncoderConfig.encoderConfig().appendDefaultContentCharsetToContentTypeIfUndefined(false)))
+                .contentType(MediaType.APPLICATION_CBOR_VALUE)
+                .accept(MediaType.APPLICATION_CBOR_VALUE)
+                .body(payload)
+                .when()
+                .post("/messages")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract()
+                .asByteArray();
+
+        var message = cborMapper.readTree(body);
+        assertThat(message.get("content").asText()).isEqualTo("Hello, CBOR!");
+        assertThat(message.get("createdAt").isIntegralNumber()).isTrue();
+    }
+
+    @Test
+    void shouldKeepJsonAsDefaultRepresentation() {
+        var message = given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/messages/{id}", "cf9f5083-c5fb-4061-91cf-cd80eec30c89")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(startsWith(MediaType.APPLICATION_JSON_VALUE))
+                .extract()
+                .as(Message.class);
+
+        assertThat(message.getCreatedAt()).isEqualTo(LocalDateTime.parse("2023-01-15T00:01:00.100"));
+    }
+}
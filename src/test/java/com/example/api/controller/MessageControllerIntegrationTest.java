@@ -1,12 +1,14 @@
 package com.example.api.controller;
 
 import com.example.api.model.Message;
+import com.example.api.repository.MessageRepository;
 import com.example.api.utils.MessageHelper;
 import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
@@ -14,14 +16,23 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.when;
 import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -29,6 +40,9 @@ import static org.junit.jupiter.api.Assertions.fail;
 @AutoConfigureTestDatabase
 public class MessageControllerIntegrationTest {
 
+    @Autowired
+    private MessageRepository messageRepository;
+
     @LocalServerPort
     private int port;
 
@@ -57,6 +71,43 @@ public class MessageControllerIntegrationTest {
 
         }
 
+        @Test
+        void shouldAllowRegisterMessageAsynchronously() {
+            var message = MessageHelper.createMessage();
+            var location = given()
+                    .filters(new AllureRestAssured())
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .header("Prefer", "respond-async")
+                    .body(message)
+                    .when()
+                    .post("/messages")
+                    .then()
+                    .statusCode(HttpStatus.ACCEPTED.value())
+                    .header("Preference-Applied", equalTo("respond-async"))
+                    .body("id", notNullValue())
+                    .extract()
+                    .header("Location");
+
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> when()
+                    .get(location)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("content", equalTo(message.getContent())));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenRegisterAsynchronouslyIfMessageIsInvalid() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .header("Prefer", "respond-async")
+                    .body("{ \"username\": \"John\", \"content\": \"\" }")
+                    .when()
+                    .post("/messages")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value());
+        }
+
         @Test
         void shouldThrowExceptionWhenRegisterIfMessagePayloadIsTypeXML() {
             String xmlPayload = """
@@ -80,6 +131,42 @@ public class MessageControllerIntegrationTest {
 
     }
 
+    @Nested
+    class RegisterMessages {
+        @Test
+        void shouldAllowRegisterMessagesBatch() {
+            var messages = List.of(MessageHelper.createMessage(), MessageHelper.createMessage());
+            given()
+                    .filters(new AllureRestAssured())
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(messages)
+                    .when()
+                    .post("/messages/batch")
+                    .then()
+                    .statusCode(HttpStatus.CREATED.value())
+                    .body("status", everyItem(equalTo("CREATED")))
+                    .body("id", everyItem(notNullValue()));
+        }
+
+        @Test
+        void shouldAllowRegisterMessagesNdjsonStream() {
+            var payload = """
+                {"username": "John", "content": "Hello, World!"}
+                {"username": "Eva", "content": ""}
+                """;
+            given()
+                    .filters(new AllureRestAssured())
+                    .contentType(MediaType.APPLICATION_NDJSON_VALUE)
+                    .body(payload.getBytes(StandardCharsets.UTF_8))
+                    .when()
+                    .post("/messages/batch")
+                    .then()
+                    .statusCode(HttpStatus.MULTI_STATUS.value())
+                    .body("[0].status", equalTo("CREATED"))
+                    .body("[1].status", equalTo("REJECTED"));
+        }
+    }
+
     @Nested
     class GetMessage {
         @Test
@@ -93,6 +180,28 @@ public class MessageControllerIntegrationTest {
                 .statusCode(HttpStatus.OK.value());
         }
 
+        @Test
+        void shouldReturnNotModifiedWhenGetIfNoneMatchIsCurrentVersion() {
+            var id = "cf9f5083-c5fb-4061-91cf-cd80eec30c89";
+            var eTag = given()
+                    .filters(new AllureRestAssured())
+                    .when()
+                    .get("/messages/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .header("ETag", notNullValue())
+                    .extract()
+                    .header("ETag");
+
+            given()
+                    .filters(new AllureRestAssured())
+                    .header("If-None-Match", eTag)
+                    .when()
+                    .get("/messages/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.NOT_MODIFIED.value());
+        }
+
         @Test
         void shouldThrowExceptionWhenGetIfMessageIdNotFound() {
             var id = UUID.randomUUID();
@@ -170,6 +279,46 @@ public class MessageControllerIntegrationTest {
                     .body(equalTo("Updated message does not have the correct ID"));
         }
 
+        @Test
+        void shouldAllowUpdateMessageIfMatchIsCurrentVersion() {
+            var id = UUID.fromString("450fb656-3b0a-4044-9976-06e04d2df74e");
+            var eTag = given()
+                    .filters(new AllureRestAssured())
+                    .when()
+                    .get("/messages/{id}", id)
+                    .then()
+                    .extract()
+                    .header("ETag");
+            var message = Message.builder()
+                    .id(id)
+                    .username("Adam")
+                    .content("Hello, World! 05")
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            given()
+                    .filters(new AllureRestAssured())
+                    .header("If-Match", eTag)
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(message)
+                    .when()
+                    .put("/messages/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.ACCEPTED.value())
+                    .header("ETag", not(equalTo(eTag)));
+
+            given()
+                    .filters(new AllureRestAssured())
+                    .header("If-Match", eTag)
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(message)
+                    .when()
+                    .put("/messages/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.PRECONDITION_FAILED.value())
+                    .body(equalTo("Message was modified"));
+        }
+
         @Test
         void shouldThrowExceptionWhenUpdateIfMessagePayloadIsTypeXML() {
             var id = UUID.fromString("450fb656-3b0a-4044-9976-06e04d2df74e");
@@ -216,6 +365,33 @@ public class MessageControllerIntegrationTest {
         }
     }
 
+    @Nested
+    class LikeMessage {
+        @Test
+        void shouldAllowLikeMessage() {
+            var id = UUID.fromString("cf9f5083-c5fb-4061-91cf-cd80eec30c89");
+            given()
+                    .filters(new AllureRestAssured())
+                    .when()
+                    .post("/messages/{id}/likes", id)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body(equalTo("Message liked"));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenLikeIfMessageIdNotFound() {
+            var id = UUID.randomUUID();
+            given()
+                    .filters(new AllureRestAssured())
+                    .when()
+                    .post("/messages/{id}/likes", id)
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body(equalTo("Message not found"));
+        }
+    }
+
     @Nested
     class ListMessages {
         @Test
@@ -241,5 +417,170 @@ public class MessageControllerIntegrationTest {
                     .statusCode(HttpStatus.OK.value())
                     .body(matchesJsonSchemaInClasspath("schemas/MessagePaginationSchema.json"));
         }
+
+        @Test
+        void shouldAllowListMessagesWithExactCount() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("size", "1")
+                    .queryParam("count", "exact")
+                    .when()
+                    .get("/messages")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("totalElements", equalTo((int) messageRepository.count()));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenListIfCountIsInvalid() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("count", "fast")
+                    .when()
+                    .get("/messages")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body(equalTo("Invalid count"));
+        }
+    }
+
+    @Nested
+    class ScrollMessages {
+        @Test
+        void shouldAllowScrollMessages() {
+            var nextCursor = given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("cursor", "")
+                    .queryParam("size", "1")
+                    .when()
+                    .get("/messages")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body(matchesJsonSchemaInClasspath("schemas/MessageSliceSchema.json"))
+                    .body("hasNext", equalTo(true))
+                    .extract()
+                    .path("nextCursor");
+
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("cursor", nextCursor)
+                    .queryParam("size", "1")
+                    .when()
+                    .get("/messages")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body(matchesJsonSchemaInClasspath("schemas/MessageSliceSchema.json"));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenScrollIfCursorIsInvalid() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("cursor", "invalid")
+                    .when()
+                    .get("/messages")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body(equalTo("Invalid cursor"));
+        }
+    }
+
+    @Nested
+    class SearchMessages {
+        @Test
+        void shouldAllowSearchMessages() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("q", "ada")
+                    .when()
+                    .get("/messages/search")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body(matchesJsonSchemaInClasspath("schemas/MessageSearchPageSchema.json"))
+                    .body("content[0].username", equalTo("Adam"));
+        }
+
+        @Test
+        void shouldReturnEmptyPageWhenSearchHasNoMatch() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("q", "nomatch")
+                    .when()
+                    .get("/messages/search")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("content", empty())
+                    .body("last", equalTo(true));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenSearchIfQueryIsBlank() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("q", "")
+                    .when()
+                    .get("/messages/search")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body(equalTo("Invalid query"));
+        }
+    }
+
+    @Nested
+    class ListChanges {
+        @Test
+        void shouldListChangesOfMessageOnceRelayed() {
+            var message = given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(MessageHelper.createMessage())
+                    .when()
+                    .post("/messages")
+                    .then()
+                    .statusCode(HttpStatus.CREATED.value())
+                    .extract()
+                    .as(Message.class);
+            when()
+                    .delete("/messages/{id}", message.getId())
+                    .then()
+                    .statusCode(HttpStatus.OK.value());
+
+            var changesOfMessage = "changes.findAll { it.messageId == '" + message.getId() + "' }";
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("since", 0)
+                    .queryParam("size", 10000)
+                    .when()
+                    .get("/messages/changes")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body(changesOfMessage + ".type", contains("CREATED", "DELETED"))
+                    .body(changesOfMessage + "[0].message.content", equalTo(message.getContent())));
+        }
+
+        @Test
+        void shouldReturnNoChangesAfterLastSequence() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("since", Long.MAX_VALUE)
+                    .when()
+                    .get("/messages/changes")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("changes", empty())
+                    .body("hasNext", equalTo(false))
+                    .body("nextSince", equalTo(Long.MAX_VALUE));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenListChangesIfSinceIsNegative() {
+            given()
+                    .filters(new AllureRestAssured())
+                    .queryParam("since", -1)
+                    .when()
+                    .get("/messages/changes")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body(equalTo("Invalid since"));
+        }
     }
 }
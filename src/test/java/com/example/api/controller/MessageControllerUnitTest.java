@@ -1,6 +1,17 @@
 package com.example.api.controller;
 
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.count.CountMode;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageChange;
+import com.example.api.dto.MessageChangeSlice;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSlice;
+import com.example.api.dto.MessageSummary;
 import com.example.api.exception.MessageNotFoundException;
+import com.example.api.exception.MessageQueueFullException;
+import com.example.api.exception.MessageVersionConflictException;
+import com.example.api.ingest.MessageIngestionQueue;
 import com.example.api.model.Message;
 import com.example.api.service.MessageService;
 import com.example.api.utils.MessageHelper;
@@ -18,17 +29,26 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -43,12 +63,19 @@ class MessageControllerUnitTest {
     @Mock
     private MessageService messageService;
 
+    @Mock
+    private MessageIngestionQueue messageIngestionQueue;
+
     AutoCloseable mock;
 
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        MessageController messageController = new MessageController(messageService);
+        MessageController messageController = new MessageController(
+                messageService,
+                new MessageBatchProperties(500, 2),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                messageIngestionQueue);
         mockMVC = MockMvcBuilders.standaloneSetup(messageController)
                 .addFilter((request, response, chain) -> {
                     response.setCharacterEncoding(("UTF-8"));
@@ -87,6 +114,46 @@ class MessageControllerUnitTest {
             verify(messageService, times(1)).registerMessage(any(Message.class));
         }
 
+        @Test
+        void shouldAcceptMessageWhenClientPrefersAsyncResponse() throws Exception {
+            // Arrange
+            var message = MessageHelper.createMessage();
+            var id = UUID.randomUUID();
+            when(messageIngestionQueue.accept(any(Message.class)))
+                    .thenAnswer(index -> {
+                        Message accepted = index.getArgument(0);
+                        accepted.setId(id);
+                        return accepted;
+                    });
+
+            // Act & Assert
+            mockMVC.perform(post("/messages")
+                            .header("Prefer", "respond-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(message)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/messages/" + id))
+                    .andExpect(header().string("Preference-Applied", "respond-async"))
+                    .andExpect(jsonPath("$.id").value(id.toString()));
+            verify(messageService, never()).registerMessage(any(Message.class));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenRegisterAsyncIfQueueIsFull() throws Exception {
+            // Arrange
+            when(messageIngestionQueue.accept(any(Message.class)))
+                    .thenThrow(new MessageQueueFullException("Message queue is full"));
+
+            // Act & Assert
+            mockMVC.perform(post("/messages")
+                            .header("Prefer", "respond-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(MessageHelper.createMessage())))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(content().string("Message queue is full"));
+        }
+
         @Test
         void shouldThrowExceptionWhenRegisterIfMessagePayloadIsTypeXML() throws Exception {
             // Arrange
@@ -104,6 +171,93 @@ class MessageControllerUnitTest {
         }
     }
 
+    @Nested
+    class RegisterMessagesTest {
+        @Test
+        void shouldAllowRegisterMessagesBatch() throws Exception {
+            // Arrange
+            var messages = List.of(MessageHelper.createMessage(), MessageHelper.createMessage());
+            when(messageService.registerMessages(anyList()))
+                    .thenReturn(List.of(
+                            BatchItemResult.created(0, UUID.randomUUID()),
+                            BatchItemResult.created(1, UUID.randomUUID())));
+
+            // Act & Assert
+            mockMVC.perform(post("/messages/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(messages)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$[1].index").value(1));
+            verify(messageService, times(1)).registerMessages(messages);
+        }
+
+        @Test
+        void shouldReportMultiStatusWhenBatchIsPartiallyRejected() throws Exception {
+            // Arrange
+            var messages = List.of(MessageHelper.createMessage(), new Message());
+            when(messageService.registerMessages(anyList()))
+                    .thenReturn(List.of(
+                            BatchItemResult.created(0, UUID.randomUUID()),
+                            BatchItemResult.rejected(1, "Content may not be null")));
+
+            // Act & Assert
+            mockMVC.perform(post("/messages/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(messages)))
+                    .andExpect(status().isMultiStatus())
+                    .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                    .andExpect(jsonPath("$[1].error").value("Content may not be null"));
+        }
+
+        @Test
+        void shouldAllowRegisterMessagesNdjsonStream() throws Exception {
+            // Arrange
+            var payload = asJsonString(MessageHelper.createMessage()) + "\n"
+                    + asJsonString(MessageHelper.createMessage()) + "\n";
+            when(messageService.registerMessages(anyList()))
+                    .thenReturn(List.of(
+                            BatchItemResult.created(0, UUID.randomUUID()),
+                            BatchItemResult.created(1, UUID.randomUUID())));
+
+            // Act & Assert
+            mockMVC.perform(post("/messages/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(payload))
+                    .andExpect(status().isCreated());
+            verify(messageService, times(1)).registerMessages(
+                    List.of(MessageHelper.createMessage(), MessageHelper.createMessage()));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenRegisterBatchIfNdjsonIsMalformed() throws Exception {
+            // Act & Assert
+            mockMVC.perform(post("/messages/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"username\": \"John\"}\n{not json"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid NDJSON payload"));
+            verify(messageService, never()).registerMessages(anyList());
+        }
+
+        @Test
+        void shouldThrowExceptionWhenRegisterBatchIfSizeIsExceeded() throws Exception {
+            // Arrange
+            var messages = List.of(
+                    MessageHelper.createMessage(),
+                    MessageHelper.createMessage(),
+                    MessageHelper.createMessage());
+
+            // Act & Assert
+            mockMVC.perform(post("/messages/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(messages)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid batch size"));
+            verify(messageService, never()).registerMessages(anyList());
+        }
+    }
+
     @Nested
     class GetMessageTest {
         @Test
@@ -119,6 +273,36 @@ class MessageControllerUnitTest {
                     .andExpect(status().isOk());
             verify(messageService, times(1)).getMessage(any(UUID.class));
         }
+        @Test
+        void shouldReturnVersionAsETagWhenGetMessage() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            var newMessage = MessageHelper.createMessage();
+            newMessage.setVersion(3);
+            when(messageService.getMessage(id)).thenReturn(newMessage);
+
+            // Act & Assert
+            mockMVC.perform(get("/messages/{id}", id))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"3\""))
+                    .andExpect(jsonPath("$.version").doesNotExist());
+        }
+
+        @Test
+        void shouldReturnNotModifiedWhenGetIfNoneMatchIsCurrentVersion() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            var newMessage = MessageHelper.createMessage();
+            newMessage.setVersion(3);
+            when(messageService.getMessage(id)).thenReturn(newMessage);
+
+            // Act & Assert
+            mockMVC.perform(get("/messages/{id}", id)
+                            .header("If-None-Match", "\"3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
         @Test
         @Description("Throw exception if there is not message with the searched id")
         void shouldThrowExceptionWhenGetIfMessageIdNotFound() throws Exception {
@@ -201,6 +385,67 @@ class MessageControllerUnitTest {
                     .updateMessage(any(UUID.class), any(Message.class));
         }
 
+        @Test
+        void shouldAllowUpdateMessageIfMatchIsCurrentVersion() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            var newMessage = MessageHelper.createMessage();
+            newMessage.setId(id);
+            when(messageService.updateMessage(any(UUID.class), any(Message.class), eq(3L)))
+                    .thenAnswer(index -> {
+                        Message message = index.getArgument(1);
+                        message.setVersion(4);
+                        return message;
+                    });
+
+            // Act & Assert
+            mockMVC.perform(put("/messages/{id}", id)
+                            .header("If-Match", "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(newMessage)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("ETag", "\"4\""));
+
+            verify(messageService, times(1)).updateMessage(eq(id), any(Message.class), eq(3L));
+            verify(messageService, never()).updateMessage(any(UUID.class), any(Message.class));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenUpdateIfMatchIsStaleVersion() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            var newMessage = MessageHelper.createMessage();
+            newMessage.setId(id);
+            when(messageService.updateMessage(any(UUID.class), any(Message.class), eq(3L)))
+                    .thenThrow(new MessageVersionConflictException("Message was modified"));
+
+            // Act & Assert
+            mockMVC.perform(put("/messages/{id}", id)
+                            .header("If-Match", "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(newMessage)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("Message was modified"));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenUpdateIfMatchIsWeakETag() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            var newMessage = MessageHelper.createMessage();
+            newMessage.setId(id);
+
+            // Act & Assert
+            mockMVC.perform(put("/messages/{id}", id)
+                            .header("If-Match", "W/\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(newMessage)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("Invalid ETag"));
+
+            verify(messageService, never()).updateMessage(any(UUID.class), any(Message.class), anyLong());
+        }
+
         @Test
         void shouldThrowExceptionWhenUpdateIfMessagePayloadIsTypeXML() throws Exception {
             // Arrange
@@ -233,6 +478,21 @@ class MessageControllerUnitTest {
             verify(messageService, times(1)).deleteMessage(id);
         }
 
+        @Test
+        void shouldThrowExceptionWhenDeleteIfMatchIsStaleVersion() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(messageService.deleteMessage(id, 3L))
+                    .thenThrow(new MessageVersionConflictException("Message was modified"));
+
+            // Act & Assert
+            mockMVC.perform(delete("/messages/{id}", id)
+                            .header("If-Match", "\"3\""))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("Message was modified"));
+            verify(messageService, never()).deleteMessage(id);
+        }
+
         @Test
         void shouldThrowExceptionWhenDeleteIfMessageIdNotFound() throws Exception {
             // Arrange
@@ -249,22 +509,64 @@ class MessageControllerUnitTest {
         }
     }
 
+    @Nested
+    class LikeMessageTest {
+        @Test
+        void shouldAllowLikeMessage() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(messageService.likeMessage(id)).thenReturn(true);
+
+            // Act & Assert
+            mockMVC.perform(post("/messages/{id}/likes", id))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Message liked"));
+            verify(messageService, times(1)).likeMessage(id);
+        }
+
+        @Test
+        void shouldAcceptLikeWhenWrittenBehind() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(messageService.likeMessage(id)).thenReturn(false);
+
+            // Act & Assert
+            mockMVC.perform(post("/messages/{id}/likes", id))
+                    .andExpect(status().isAccepted())
+                    .andExpect(content().string("Like accepted"));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenLikeIfMessageIdNotFound() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            var exceptionContent = "Message not found";
+            when(messageService.likeMessage(id))
+                    .thenThrow(new MessageNotFoundException(exceptionContent));
+
+            // Act & Assert
+            mockMVC.perform(post("/messages/{id}/likes", id))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(exceptionContent));
+        }
+    }
+
     @Nested
     class ListMessagesTest {
         @Test
         void shouldAllowListMessages() throws Exception {
             // Arrange
-            var newMessage = MessageHelper.createMessage();
+            var newMessage = MessageSummary.of(MessageHelper.createFullMessage());
             // https://github.com/spring-projects/spring-data-commons/issues/2987
             Pageable pageable = PageRequest.of(0, 10);
             var messageList = Collections.singletonList(newMessage);
-            Page<Message> page = new PageImpl<>(
+            Page<MessageSummary> page = new PageImpl<>(
                     messageList,
                     pageable,
                     messageList.size()
             );
 
-            when(messageService.listMessages(any(Pageable.class)))
+            when(messageService.listMessages(any(Pageable.class), eq(CountMode.EXACT)))
                     .thenReturn(page);
 
             // Act & Assert
@@ -276,26 +578,31 @@ class MessageControllerUnitTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.content", not(empty())))
                     .andExpect(jsonPath("$.totalPages").value(1))
-                    .andExpect(jsonPath("$.totalElements").value(1));
+                    .andExpect(jsonPath("$.totalElements").value(1))
+                    .andExpect(jsonPath("$.number").value(0))
+                    .andExpect(jsonPath("$.size").value(10))
+                    .andExpect(jsonPath("$.last").value(true))
+                    .andExpect(jsonPath("$.pageable").doesNotExist())
+                    .andExpect(jsonPath("$.sort").doesNotExist());
 
             verify(messageService, times(1))
-                    .listMessages(any(Pageable.class));
+                    .listMessages(any(Pageable.class), eq(CountMode.EXACT));
         }
 
         @Test
         void shouldAllowListMessagesWhenPaginationParamsNotInformed() throws Exception {
             // Arrange
-            var newMessage = MessageHelper.createMessage();
+            var newMessage = MessageSummary.of(MessageHelper.createFullMessage());
             // https://github.com/spring-projects/spring-data-commons/issues/2987
             Pageable pageable = PageRequest.of(0, 10);
             var messageList = Collections.singletonList(newMessage);
-            Page<Message> page = new PageImpl<>(
+            Page<MessageSummary> page = new PageImpl<>(
                     messageList,
                     pageable,
                     messageList.size()
             );
 
-            when(messageService.listMessages(any(Pageable.class)))
+            when(messageService.listMessages(any(Pageable.class), eq(CountMode.EXACT)))
                     .thenReturn(page);
 
             // Act & Assert
@@ -308,7 +615,185 @@ class MessageControllerUnitTest {
                     .andExpect(jsonPath("$.totalElements").value(1));
 
             verify(messageService, times(1))
-                    .listMessages(any(Pageable.class));
+                    .listMessages(any(Pageable.class), eq(CountMode.EXACT));
+        }
+
+        @Test
+        void shouldAllowListMessagesWithExactCount() throws Exception {
+            // Arrange
+            var messageList = Collections.singletonList(MessageSummary.of(MessageHelper.createFullMessage()));
+            when(messageService.listMessages(any(Pageable.class), eq(CountMode.EXACT)))
+                    .thenReturn(new PageImpl<>(messageList, PageRequest.of(0, 10), 1));
+
+            // Act & Assert
+            mockMVC.perform(get("/messages")
+                            .param("count", "exact"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(1));
+
+            verify(messageService, times(1))
+                    .listMessages(any(Pageable.class), eq(CountMode.EXACT));
+        }
+
+        @Test
+        void shouldAllowListMessagesWithApproximateCount() throws Exception {
+            // Arrange
+            var messageList = Collections.singletonList(MessageSummary.of(MessageHelper.createFullMessage()));
+            when(messageService.listMessages(any(Pageable.class), eq(CountMode.APPROXIMATE)))
+                    .thenReturn(new PageImpl<>(messageList, PageRequest.of(0, 10), 1000));
+
+            // Act & Assert
+            mockMVC.perform(get("/messages")
+                            .param("count", "approximate"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(1000));
+
+            verify(messageService, times(1))
+                    .listMessages(any(Pageable.class), eq(CountMode.APPROXIMATE));
+        }
+
+        @Test
+        void shouldThrowExceptionWhenListIfCountIsInvalid() throws Exception {
+            // Act & Assert
+            mockMVC.perform(get("/messages")
+                            .param("count", "fast"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid count"));
+
+            verify(messageService, never()).listMessages(any(Pageable.class), any(CountMode.class));
+        }
+    }
+
+    @Nested
+    class ScrollMessagesTest {
+        @Test
+        void shouldAllowScrollMessagesFirstSlice() throws Exception {
+            // Arrange
+            var message = MessageSummary.of(MessageHelper.createFullMessage());
+            var nextCursor = MessageCursor.of(message).encode();
+            when(messageService.scrollMessages(isNull(), anyInt()))
+                    .thenReturn(new MessageSlice(List.of(message), 1, true, nextCursor));
+
+            // Act & Assert
+            mockMVC.perform(get("/messages")
+                            .param("cursor", "")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", not(empty())))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.nextCursor").value(nextCursor))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+            verify(messageService, times(1)).scrollMessages(null, 1);
+            verify(messageService, never()).listMessages(any(Pageable.class));
+        }
+
+        @Test
+        void shouldAllowScrollMessagesAfterCursor() throws Exception {
+            // Arrange
+            var cursor = new MessageCursor(LocalDateTime.now(), UUID.randomUUID());
+            when(messageService.scrollMessages(any(MessageCursor.class), anyInt()))
+                    .thenReturn(new MessageSlice(List.of(), 10, false, null));
+
+            // Act & Assert
+            mockMVC.perform(get("/messages")
+                            .param("cursor", cursor.encode()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hasNext").value(false));
+            verify(messageService, times(1)).scrollMessages(cursor, 10);
+        }
+
+        @Test
+        void shouldThrowExceptionWhenScrollIfCursorIsInvalid() throws Exception {
+            // Act & Assert
+            mockMVC.perform(get("/messages")
+                            .param("cursor", "invalid"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid cursor"));
+            verify(messageService, never()).scrollMessages(any(), anyInt());
+        }
+    }
+
+    @Nested
+    class SearchMessagesTest {
+        @Test
+        void shouldAllowSearchMessages() throws Exception {
+            // Arrange
+            var message = MessageSummary.of(MessageHelper.createFullMessage());
+            var pageable = PageRequest.of(0, 10);
+            when(messageService.searchMessages(anyString(), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(message), pageable, true));
+
+            // Act & Assert
+            mockMVC.perform(get("/messages/search")
+                            .param("q", "hello"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", not(empty())))
+                    .andExpect(jsonPath("$.number").value(0))
+                    .andExpect(jsonPath("$.size").value(10))
+                    .andExpect(jsonPath("$.last").value(false))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+            verify(messageService, times(1)).searchMessages("hello", pageable);
+        }
+
+        @Test
+        void shouldThrowExceptionWhenSearchIfQueryIsBlank() throws Exception {
+            // Act & Assert
+            mockMVC.perform(get("/messages/search")
+                            .param("q", " "))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid query"));
+            verify(messageService, never()).searchMessages(anyString(), any(Pageable.class));
+        }
+    }
+
+    @Nested
+    class ListChangesTest {
+        @Test
+        void shouldAllowListChangesSinceSequence() throws Exception {
+            // Arrange
+            var message = MessageSummary.of(MessageHelper.createFullMessage());
+            var change = new MessageChange(
+                    8, MessageChange.Type.CREATED, message.id(), LocalDateTime.now(), message);
+            when(messageService.listChanges(anyLong(), anyInt()))
+                    .thenReturn(new MessageChangeSlice(List.of(change), 1, true, 8));
+
+            // Act & Assert
+            mockMVC.perform(get("/messages/changes")
+                            .param("since", "7")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.changes[0].sequence").value(8))
+                    .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                    .andExpect(jsonPath("$.changes[0].message.content").value(message.content()))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.nextSince").value(8));
+            verify(messageService, times(1)).listChanges(7, 1);
+        }
+
+        @Test
+        void shouldOmitMessageOfDeletedChange() throws Exception {
+            // Arrange
+            var change = new MessageChange(
+                    3, MessageChange.Type.DELETED, UUID.randomUUID(), LocalDateTime.now(), null);
+            when(messageService.listChanges(anyLong(), anyInt()))
+                    .thenReturn(new MessageChangeSlice(List.of(change), 100, false, 3));
+
+            // Act & Assert
+            mockMVC.perform(get("/messages/changes"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                    .andExpect(jsonPath("$.changes[0].message").doesNotExist());
+            verify(messageService, times(1)).listChanges(0, 100);
+        }
+
+        @Test
+        void shouldThrowExceptionWhenListChangesIfSinceIsNegative() throws Exception {
+            // Act & Assert
+            mockMVC.perform(get("/messages/changes")
+                            .param("since", "-1"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid since"));
+            verify(messageService, never()).listChanges(anyLong(), anyInt());
         }
     }
 }
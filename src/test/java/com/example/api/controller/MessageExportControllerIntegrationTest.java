@@ -0,0 +1,89 @@
+package com.example.api.controller;
+
+import com.example.api.repository.MessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+class MessageExportControllerIntegrationTest {
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void shouldExportMessagesAsNdjson() throws IOException {
+        var body = given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/messages/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(startsWith("application/x-ndjson"))
+                .header("Content-Disposition", equalTo("attachment; filename=\"messages.ndjson\""))
+                .extract()
+                .asString();
+
+        var lines = body.lines().toList();
+        assertThat(lines).hasSize((int) messageRepository.count());
+        for (var line : lines) {
+            assertThat(objectMapper.readTree(line).get("id").asText()).isNotBlank();
+        }
+    }
+
+    @Test
+    void shouldExportMessagesAsCsv() {
+        var body = given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/messages/export?format=csv")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(startsWith("text/csv"))
+                .extract()
+                .asString();
+
+        assertThat(body.lines().findFirst()).hasValue("id,username,content,createdAt,updatedAt,likeCount");
+        assertThat(body).contains("cf9f5083-c5fb-4061-91cf-cd80eec30c89,John,");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenExportIfFormatIsInvalid() {
+        given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/messages/export?format=xml")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body(equalTo("Invalid format"));
+    }
+}
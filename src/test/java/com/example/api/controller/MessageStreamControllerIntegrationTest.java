@@ -0,0 +1,123 @@
+package com.example.api.controller;
+
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSummary;
+import com.example.api.model.Message;
+import com.example.api.utils.MessageHelper;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+class MessageStreamControllerIntegrationTest {
+
+    private static final MessageCursor JOHN = new MessageCursor(
+            LocalDateTime.parse("2023-01-15T00:01:00.100"),
+            UUID.fromString("cf9f5083-c5fb-4061-91cf-cd80eec30c89"));
+
+    private static final MessageCursor ADAM = new MessageCursor(
+            LocalDateTime.parse("2023-01-15T00:02:00.100"),
+            UUID.fromString("450fb656-3b0a-4044-9976-06e04d2df74e"));
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    private Flux<ServerSentEvent<MessageSummary>> stream(String lastEventId) {
+        return WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofSeconds(10))
+                .build()
+                .get()
+                .uri("/messages/stream")
+                .headers(headers -> {
+                    if (lastEventId != null) {
+                        headers.set("Last-Event-ID", lastEventId);
+                    }
+                })
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<MessageSummary>>() {
+                })
+                .getResponseBody()
+                .filter(event -> event.data() != null);
+    }
+
+    @Test
+    void shouldStreamRegisteredMessage() {
+        var events = stream(null);
+
+        StepVerifier.create(events)
+                .then(() -> given()
+                        .filters(new AllureRestAssured())
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .body(MessageHelper.createMessage())
+                        .when()
+                        .post("/messages")
+                        .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .as(Message.class))
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("message");
+                    assertThat(event.data().username()).isEqualTo("John");
+                    assertThat(MessageCursor.decode(event.id()).id()).isEqualTo(event.data().id());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldReplayMessagesAfterLastEventId() {
+        var events = stream(JOHN.encode());
+
+        StepVerifier.create(events)
+                .assertNext(event -> {
+                    assertThat(event.id()).isEqualTo(ADAM.encode());
+                    assertThat(event.data().id()).isEqualTo(ADAM.id());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenStreamIfLastEventIdIsInvalid() {
+        given()
+                .filters(new AllureRestAssured())
+                .header("Last-Event-ID", "invalid")
+                .accept(MediaType.TEXT_EVENT_STREAM_VALUE)
+                .when()
+                .get("/messages/stream")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body(equalTo("Invalid cursor"));
+    }
+}
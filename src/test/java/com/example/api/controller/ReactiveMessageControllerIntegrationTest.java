@@ -0,0 +1,277 @@
+package com.example.api.controller;
+
+import com.example.api.dto.MessageCursor;
+import com.example.api.model.Message;
+import com.example.api.utils.MessageHelper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.datasource.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb?options=DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=root",
+                "spring.r2dbc.password=toor"
+        })
+@ActiveProfiles({"test", "reactive"})
+class ReactiveMessageControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Message registerMessage() {
+        return webTestClient.post()
+                .uri("/messages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(MessageHelper.createMessage())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Message.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Nested
+    class RegisterMessage {
+        @Test
+        void shouldAllowRegisterMessage() {
+            var message = registerMessage();
+
+            assertThat(message.getId()).isNotNull();
+            assertThat(message.getCreatedAt()).isNotNull();
+            assertThat(message.getUsername()).isEqualTo("John");
+        }
+    }
+
+    @Nested
+    class RegisterMessages {
+        @Test
+        void shouldAllowRegisterMessages() {
+            webTestClient.post()
+                    .uri("/messages/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(List.of(MessageHelper.createMessage(), MessageHelper.createMessage()))
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody()
+                    .jsonPath("$.length()").isEqualTo(2)
+                    .jsonPath("$[0].status").isEqualTo("CREATED");
+        }
+
+        @Test
+        void shouldAllowRegisterMessagesFromNdjsonStream() {
+            var payload = """
+                    { "username": "John", "content": "Hello, World! 1" }
+                    { "username": "", "content": "Hello, World! 2" }
+                    """;
+            webTestClient.post()
+                    .uri("/messages/batch")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .bodyValue(payload)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.MULTI_STATUS)
+                    .expectBody()
+                    .jsonPath("$[0].status").isEqualTo("CREATED")
+                    .jsonPath("$[1].status").isEqualTo("REJECTED")
+                    .jsonPath("$[1].error").isEqualTo("User may not be empty");
+        }
+    }
+
+    @Nested
+    class GetMessage {
+        @Test
+        void shouldAllowGetMessage() {
+            webTestClient.get()
+                    .uri("/messages/{id}", "cf9f5083-c5fb-4061-91cf-cd80eec30c89")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.username").isEqualTo("John")
+                    .jsonPath("$.createdAt").isEqualTo("2023-01-15 00:01:00.10000");
+        }
+
+        @Test
+        void shouldThrowExceptionWhenGetIfMessageIdNotFound() {
+            webTestClient.get()
+                    .uri("/messages/{id}", UUID.randomUUID())
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Invalid ID");
+        }
+    }
+
+    @Nested
+    class UpdateMessage {
+        @Test
+        void shouldAllowUpdateMessage() {
+            var message = registerMessage();
+            message.setContent("Updated");
+            message.setUpdatedAt(LocalDateTime.now());
+
+            webTestClient.put()
+                    .uri("/messages/{id}", message.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(message)
+                    .exchange()
+                    .expectStatus().isAccepted()
+                    .expectBody()
+                    .jsonPath("$.content").isEqualTo("Updated");
+        }
+
+        @Test
+        void shouldThrowExceptionWhenUpdateIfMessageIdIsNotEqual() {
+            var message = MessageHelper.createFullMessage();
+
+            webTestClient.put()
+                    .uri("/messages/{id}", UUID.randomUUID())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(message)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Updated message does not have the correct ID");
+        }
+    }
+
+    @Nested
+    class LikeMessage {
+        @Test
+        void shouldAllowLikeMessage() {
+            var message = registerMessage();
+
+            webTestClient.post()
+                    .uri("/messages/{id}/likes", message.getId())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo("Message liked");
+
+            webTestClient.get()
+                    .uri("/messages/{id}", message.getId())
+                    .exchange()
+                    .expectBody()
+                    .jsonPath("$.likeCount").isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class DeleteMessage {
+        @Test
+        void shouldAllowDeleteMessage() {
+            var message = registerMessage();
+
+            webTestClient.delete()
+                    .uri("/messages/{id}", message.getId())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo("Message deleted");
+        }
+
+        @Test
+        void shouldThrowExceptionWhenDeleteIfMessageIdNotFound() {
+            webTestClient.delete()
+                    .uri("/messages/{id}", UUID.randomUUID())
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Message not found");
+        }
+    }
+
+    @Nested
+    class RecordChanges {
+        @Test
+        void shouldRecordEveryChangeInOutbox() {
+            var message = registerMessage();
+            message.setContent("Updated");
+            message.setUpdatedAt(LocalDateTime.now());
+            webTestClient.put()
+                    .uri("/messages/{id}", message.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(message)
+                    .exchange()
+                    .expectStatus().isAccepted();
+            webTestClient.delete()
+                    .uri("/messages/{id}", message.getId())
+                    .exchange()
+                    .expectStatus().isOk();
+
+            var changeTypes = jdbcTemplate.queryForList(
+                    "SELECT change_type FROM message_outbox WHERE message_id = ? ORDER BY id",
+                    String.class, message.getId());
+            assertThat(changeTypes).containsExactly("CREATED", "UPDATED", "DELETED");
+        }
+    }
+
+    @Nested
+    class ListMessages {
+        @Test
+        void shouldAllowListMessages() {
+            webTestClient.get()
+                    .uri("/messages?page=0&size=2")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.content.length()").isEqualTo(2)
+                    .jsonPath("$.number").isEqualTo(0)
+                    .jsonPath("$.size").isEqualTo(2)
+                    .jsonPath("$.totalElements").isNumber()
+                    .jsonPath("$.last").isEqualTo(false);
+        }
+    }
+
+    @Nested
+    class ScrollMessages {
+        @Test
+        void shouldAllowScrollMessages() {
+            var nextCursor = webTestClient.get()
+                    .uri("/messages?cursor=&size=1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.content.length()").isEqualTo(1)
+                    .jsonPath("$.hasNext").isEqualTo(true)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertThat(nextCursor).isNotNull();
+        }
+
+        @Test
+        void shouldFollowCursorToNextSlice() {
+            var cursor = new MessageCursor(LocalDateTime.parse("2023-01-15T00:02:00.1"),
+                    UUID.fromString("450fb656-3b0a-4044-9976-06e04d2df74e"));
+
+            webTestClient.get()
+                    .uri("/messages?cursor={cursor}&size=5", cursor.encode())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.content[0].id").isEqualTo("cf9f5083-c5fb-4061-91cf-cd80eec30c89");
+        }
+
+        @Test
+        void shouldThrowExceptionWhenScrollIfCursorIsInvalid() {
+            webTestClient.get()
+                    .uri("/messages?cursor=invalid")
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Invalid cursor");
+        }
+    }
+}
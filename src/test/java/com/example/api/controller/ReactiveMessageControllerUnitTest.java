@@ -0,0 +1,165 @@
+package com.example.api.controller;
+
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.dto.MessageSlice;
+import com.example.api.exception.MessageNotFoundException;
+import com.example.api.model.Message;
+import com.example.api.service.ReactiveMessageService;
+import com.example.api.utils.MessageHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReactiveMessageControllerUnitTest {
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private ReactiveMessageService messageService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient
+                .bindToController(new ReactiveMessageController(messageService, new MessageBatchProperties(500, 2)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Nested
+    class RegisterMessageTest {
+        @Test
+        void shouldAllowRegisterMessage() {
+            // Arrange
+            var message = MessageHelper.createFullMessage();
+            when(messageService.registerMessage(any(Message.class))).thenReturn(Mono.just(message));
+
+            // Act & Assert
+            webTestClient.post()
+                    .uri("/messages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(MessageHelper.createMessage())
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody()
+                    .jsonPath("$.id").isEqualTo(message.getId().toString());
+        }
+    }
+
+    @Nested
+    class RegisterMessagesTest {
+        @Test
+        void shouldRejectBatchLargerThanMaxSize() {
+            // Act & Assert
+            webTestClient.post()
+                    .uri("/messages/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(List.of(
+                            MessageHelper.createMessage(),
+                            MessageHelper.createMessage(),
+                            MessageHelper.createMessage()))
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Invalid batch size");
+            verify(messageService, never()).registerMessages(anyList());
+        }
+    }
+
+    @Nested
+    class GetMessageTest {
+        @Test
+        void shouldThrowExceptionWhenGetIfMessageIdNotFound() {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(messageService.getMessage(id)).thenReturn(Mono.error(new MessageNotFoundException("Message not found")));
+
+            // Act & Assert
+            webTestClient.get()
+                    .uri("/messages/{id}", id)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Invalid ID");
+        }
+    }
+
+    @Nested
+    class LikeMessageTest {
+        @Test
+        void shouldAcceptLikeWhenWrittenBehind() {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(messageService.likeMessage(id)).thenReturn(Mono.just(false));
+
+            // Act & Assert
+            webTestClient.post()
+                    .uri("/messages/{id}/likes", id)
+                    .exchange()
+                    .expectStatus().isAccepted()
+                    .expectBody(String.class).isEqualTo("Like accepted");
+        }
+    }
+
+    @Nested
+    class DeleteMessageTest {
+        @Test
+        void shouldThrowExceptionWhenDeleteIfMessageIdNotFound() {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(messageService.deleteMessage(id)).thenReturn(Mono.error(new MessageNotFoundException("Message not found")));
+
+            // Act & Assert
+            webTestClient.delete()
+                    .uri("/messages/{id}", id)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Message not found");
+        }
+    }
+
+    @Nested
+    class ScrollMessagesTest {
+        @Test
+        void shouldAllowScrollMessagesFirstSlice() {
+            // Arrange
+            when(messageService.scrollMessages(null, 1)).thenReturn(Mono.just(new MessageSlice(List.of(), 1, false, null)));
+
+            // Act & Assert
+            webTestClient.get()
+                    .uri("/messages?cursor=&size=1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.hasNext").isEqualTo(false);
+        }
+
+        @Test
+        void shouldThrowExceptionWhenScrollIfSizeIsInvalid() {
+            // Act & Assert
+            webTestClient.get()
+                    .uri("/messages?cursor=&size=0")
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("Invalid size");
+            verifyNoInteractions(messageService);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.api.controller;
+
+import com.example.api.model.Message;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+class ResponseCompressionIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+        var messages = IntStream.range(0, 20)
+                .mapToObj(index -> Message.builder()
+                        .username("Compressed")
+                        .content("Hello, World! " + index)
+                        .build())
+                .toList();
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(messages)
+                .when()
+                .post("/messages/batch")
+                .then()
+                .statusCode(HttpStatus.CREATED.value());
+    }
+
+    @Test
+    void shouldCompressListMessagesWhenClientAcceptsGzip() {
+        given()
+                .filters(new AllureRestAssured())
+                .header("Accept-Encoding", "gzip")
+                .when()
+                .get("/messages?page=0&size=20")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Content-Encoding", equalTo("gzip"))
+                .body("content.size()", equalTo(20));
+    }
+
+    @Test
+    void shouldNotCompressListMessagesWhenClientDoesNotAcceptGzip() {
+        given()
+                .filters(new AllureRestAssured())
+                .config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+                .when()
+                .get("/messages?page=0&size=20")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Content-Encoding", nullValue());
+    }
+
+    @Test
+    void shouldNotCompressResponseBelowMinimumSize() {
+        given()
+                .filters(new AllureRestAssured())
+                .header("Accept-Encoding", "gzip")
+                .when()
+                .get("/messages/{id}", "cf9f5083-c5fb-4061-91cf-cd80eec30c89")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Content-Encoding", nullValue());
+    }
+
+    @Test
+    void shouldUpgradeCleartextConnectionToHttp2() throws IOException, InterruptedException {
+        // Arrange
+        var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .build();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/messages"))
+                .GET()
+                .build();
+
+        // Act
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.api.controller;
+
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+class UserControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void shouldAllowListUserMessages() {
+        given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/users/{username}/messages", "Adam")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body(matchesJsonSchemaInClasspath("schemas/UserMessageSliceSchema.json"))
+                .body("username", equalTo("Adam"))
+                .body("messageCount", equalTo(1))
+                .body("content.username", everyItem(equalTo("Adam")))
+                .body("hasNext", equalTo(false));
+    }
+
+    @Test
+    void shouldReturnEmptySliceWhenUserHasNoMessages() {
+        given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/users/{username}/messages", "Nobody")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("messageCount", equalTo(0))
+                .body("content", empty());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.api.controller;
+
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSlice;
+import com.example.api.dto.MessageSummary;
+import com.example.api.service.MessageService;
+import com.example.api.utils.MessageHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class UserControllerUnitTest {
+
+    private MockMvc mockMVC;
+
+    @Mock
+    private MessageService messageService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        mockMVC = MockMvcBuilders.standaloneSetup(new UserController(messageService)).build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldAllowListUserMessages() throws Exception {
+        // Arrange
+        var message = MessageSummary.of(MessageHelper.createFullMessage());
+        var nextCursor = MessageCursor.of(message).encode();
+        when(messageService.scrollUserMessages("John", null, 1))
+                .thenReturn(new MessageSlice(List.of(message), 1, true, nextCursor));
+        when(messageService.countUserMessages("John")).thenReturn(7L);
+
+        // Act & Assert
+        mockMVC.perform(get("/users/{username}/messages", "John")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("John"))
+                .andExpect(jsonPath("$.messageCount").value(7))
+                .andExpect(jsonPath("$.content", not(empty())))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor));
+        verify(messageService, never()).scrollMessages(any(), anyInt());
+    }
+
+    @Test
+    void shouldAllowListUserMessagesAfterCursor() throws Exception {
+        // Arrange
+        var cursor = MessageCursor.of(MessageHelper.createFullMessage());
+        when(messageService.scrollUserMessages("John", cursor, 10))
+                .thenReturn(new MessageSlice(List.of(), 10, false, null));
+
+        // Act & Assert
+        mockMVC.perform(get("/users/{username}/messages", "John")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+        verify(messageService, times(1)).scrollUserMessages("John", cursor, 10);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenListUserMessagesIfCursorIsInvalid() throws Exception {
+        // Act & Assert
+        mockMVC.perform(get("/users/{username}/messages", "John")
+                        .param("cursor", "invalid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+        verify(messageService, never()).scrollUserMessages(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenListUserMessagesIfSizeIsInvalid() throws Exception {
+        // Act & Assert
+        mockMVC.perform(get("/users/{username}/messages", "John")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid size"));
+    }
+}
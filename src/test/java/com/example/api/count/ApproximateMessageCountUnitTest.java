@@ -0,0 +1,99 @@
+package com.example.api.count;
+
+import com.example.api.config.MessageCountProperties;
+import com.example.api.event.MessageCreatedEvent;
+import com.example.api.event.MessageDeletedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ApproximateMessageCountUnitTest {
+
+    private ApproximateMessageCount approximateMessageCount;
+
+    @Mock
+    private MessageCountEstimator estimator;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        approximateMessageCount = new ApproximateMessageCount(
+                estimator, new MessageCountProperties(Duration.ofMinutes(1)), taskScheduler);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldEstimateOnFirstUseOnly() {
+        // Arrange
+        when(estimator.estimate()).thenReturn(100L);
+
+        // Act
+        approximateMessageCount.get();
+        var total = approximateMessageCount.get();
+
+        // Assert
+        assertThat(total).isEqualTo(100);
+        verify(estimator, times(1)).estimate();
+    }
+
+    @Test
+    void shouldAdjustTotalForCreatedAndDeletedMessages() {
+        // Arrange
+        when(estimator.estimate()).thenReturn(100L);
+        approximateMessageCount.get();
+
+        // Act
+        approximateMessageCount.onMessageCreated(new MessageCreatedEvent(null));
+        approximateMessageCount.onMessageCreated(new MessageCreatedEvent(null));
+        approximateMessageCount.onMessageDeleted(new MessageDeletedEvent(UUID.randomUUID()));
+
+        // Assert
+        assertThat(approximateMessageCount.get()).isEqualTo(101);
+    }
+
+    @Test
+    void shouldReplaceAdjustedTotalOnRefresh() {
+        // Arrange
+        when(estimator.estimate()).thenReturn(100L, 250L);
+        approximateMessageCount.get();
+        approximateMessageCount.onMessageCreated(new MessageCreatedEvent(null));
+
+        // Act
+        approximateMessageCount.refresh();
+
+        // Assert
+        assertThat(approximateMessageCount.get()).isEqualTo(250);
+    }
+
+    @Test
+    void shouldKeepPreviousTotalWhenRefreshFails() {
+        // Arrange
+        when(estimator.estimate()).thenReturn(100L).thenThrow(new QueryTimeoutException("timeout"));
+        approximateMessageCount.get();
+
+        // Act
+        approximateMessageCount.refresh();
+
+        // Assert
+        assertThat(approximateMessageCount.get()).isEqualTo(100);
+    }
+}
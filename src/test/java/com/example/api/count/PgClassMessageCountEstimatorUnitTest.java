@@ -0,0 +1,77 @@
+package com.example.api.count;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PgClassMessageCountEstimatorUnitTest {
+
+    private static final String COUNT = "SELECT COUNT(*) FROM message";
+
+    private PgClassMessageCountEstimator estimator;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        estimator = new PgClassMessageCountEstimator(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldReadEstimateOfPlainTable() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Double.class))).thenReturn(List.of(1200.0));
+
+        // Act
+        var estimate = estimator.estimate();
+
+        // Assert
+        assertThat(estimate).isEqualTo(1200);
+        verify(jdbcTemplate, never()).queryForObject(COUNT, Long.class);
+    }
+
+    @Test
+    void shouldSumPartitionsAndSkipEmptyUnanalyzedPartition() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Double.class))).thenReturn(List.of(1200.0, 300.0, -1.0));
+
+        // Act
+        var estimate = estimator.estimate();
+
+        // Assert
+        assertThat(estimate).isEqualTo(1500);
+        verify(jdbcTemplate, never()).queryForObject(COUNT, Long.class);
+    }
+
+    @Test
+    void shouldCountRowsWhenNothingWasAnalyzed() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Double.class))).thenReturn(List.of(-1.0, -1.0));
+        when(jdbcTemplate.queryForObject(COUNT, Long.class)).thenReturn(7L);
+
+        // Act
+        var estimate = estimator.estimate();
+
+        // Assert
+        assertThat(estimate).isEqualTo(7);
+    }
+}
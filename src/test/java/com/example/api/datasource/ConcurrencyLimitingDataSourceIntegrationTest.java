@@ -0,0 +1,48 @@
+package com.example.api.datasource;
+
+import com.example.api.repository.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "message.datasource.max-concurrency=4")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class ConcurrencyLimitingDataSourceIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Test
+    void shouldLimitConcurrentQueriesWithoutFailing() throws Exception {
+        // Arrange
+        var tasks = new ArrayList<Callable<Long>>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(messageRepository::count);
+        }
+        var executor = Executors.newFixedThreadPool(16);
+
+        // Act
+        var results = executor.invokeAll(tasks);
+        executor.shutdown();
+
+        // Assert
+        assertThat(dataSource).isInstanceOf(ConcurrencyLimitingDataSource.class);
+        for (var result : results) {
+            assertThat(result.get()).isPositive();
+        }
+        assertThat(((ConcurrencyLimitingDataSource) dataSource).availablePermits()).isEqualTo(4);
+    }
+}
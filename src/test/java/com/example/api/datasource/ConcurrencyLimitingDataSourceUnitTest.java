@@ -0,0 +1,106 @@
+package com.example.api.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitingDataSourceUnitTest {
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        mock = MockitoAnnotations.openMocks(this);
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        dataSource = new ConcurrencyLimitingDataSource(targetDataSource, 2, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldHoldPermitUntilConnectionIsClosed() throws SQLException {
+        // Act
+        var first = dataSource.getConnection();
+        var second = dataSource.getConnection();
+
+        // Assert
+        assertThat(dataSource.availablePermits()).isZero();
+        first.close();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        second.close();
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void shouldReleasePermitOnlyOnceWhenClosedTwice() throws SQLException {
+        // Arrange
+        var first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act
+        first.close();
+        first.close();
+
+        // Assert
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeOutWhenNoPermitIsAvailable() throws SQLException {
+        // Arrange
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act & Assert
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("waiting for a database permit");
+        verify(targetDataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void shouldReleasePermitWhenTargetFails() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("down"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> dataSource.getConnection()).hasMessage("down");
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDelegateOtherCallsToConnection() throws SQLException {
+        // Arrange
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        // Act
+        var autoCommit = dataSource.getConnection().getAutoCommit();
+
+        // Assert
+        assertThat(autoCommit).isTrue();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.api.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaPoolUnitTest {
+
+    private static final String LAG_QUERY = "SELECT lag";
+
+    private final DataSource first = replicaLagging(0.2);
+
+    private final DataSource second = replicaLagging(1.5);
+
+    private static DataSource replicaLagging(double lagSeconds) {
+        var dataSource = mock(DataSource.class, RETURNS_DEEP_STUBS);
+        try {
+            when(dataSource.getConnection().createStatement().executeQuery(LAG_QUERY).getDouble(1))
+                    .thenReturn(lagSeconds);
+        } catch (SQLException sqlException) {
+            throw new IllegalStateException(sqlException);
+        }
+        return dataSource;
+    }
+
+    private ReplicaPool replicaPool(Duration maxLag) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", first);
+        replicas.put("replica-1", second);
+        return new ReplicaPool(replicas, maxLag, Duration.ofSeconds(5), LAG_QUERY);
+    }
+
+    @Test
+    void shouldNotRouteToReplicasBeforeFirstCheck() {
+        // Arrange
+        var replicaPool = replicaPool(Duration.ofSeconds(5));
+
+        // Act & Assert
+        assertThat(replicaPool.next()).isEmpty();
+    }
+
+    @Test
+    void shouldTakeHealthyReplicasInTurn() {
+        // Arrange
+        var replicaPool = replicaPool(Duration.ofSeconds(5));
+        replicaPool.checkHealth();
+
+        // Act & Assert
+        assertThat(replicaPool.next()).contains(first);
+        assertThat(replicaPool.next()).contains(second);
+        assertThat(replicaPool.next()).contains(first);
+    }
+
+    @Test
+    void shouldSkipReplicaLaggingBehindMaxLag() {
+        // Arrange
+        var replicaPool = replicaPool(Duration.ofSeconds(1));
+
+        // Act
+        replicaPool.checkHealth();
+
+        // Assert
+        assertThat(replicaPool.isHealthy("replica-0")).isTrue();
+        assertThat(replicaPool.isHealthy("replica-1")).isFalse();
+        assertThat(replicaPool.next()).contains(first);
+        assertThat(replicaPool.next()).contains(first);
+    }
+
+    @Test
+    void shouldSkipReplicaWhoseCheckFailsUntilItRecovers() throws SQLException {
+        // Arrange
+        var replicaPool = replicaPool(Duration.ofSeconds(5));
+        replicaPool.checkHealth();
+        var connection = second.getConnection();
+        when(second.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+
+        // Act
+        replicaPool.checkHealth();
+
+        // Assert
+        assertThat(replicaPool.isHealthy("replica-1")).isFalse();
+        doReturn(connection).when(second).getConnection();
+        replicaPool.checkHealth();
+        assertThat(replicaPool.isHealthy("replica-1")).isTrue();
+    }
+
+    @Test
+    void shouldSkipReplicaMarkedUnhealthyUntilNextCheck() {
+        // Arrange
+        var replicaPool = replicaPool(Duration.ofSeconds(5));
+        replicaPool.checkHealth();
+
+        // Act
+        replicaPool.markUnhealthy(first, "Connection refused");
+
+        // Assert
+        assertThat(replicaPool.next()).contains(second);
+        assertThat(replicaPool.next()).contains(second);
+        replicaPool.checkHealth();
+        assertThat(replicaPool.isHealthy("replica-0")).isTrue();
+    }
+
+    @Test
+    void shouldReportNoReplicaWhenNoneIsHealthy() throws SQLException {
+        // Arrange
+        var replicaPool = replicaPool(Duration.ofMillis(100));
+
+        // Act
+        replicaPool.checkHealth();
+
+        // Assert
+        assertThat(replicaPool.next()).isEmpty();
+        verify(first.getConnection().createStatement(), atLeastOnce()).executeQuery(anyString());
+    }
+}
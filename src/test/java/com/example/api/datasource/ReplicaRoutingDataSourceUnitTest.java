@@ -0,0 +1,105 @@
+package com.example.api.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceUnitTest {
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private ReplicaPool replicaPool;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        mock = MockitoAnnotations.openMocks(this);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReplicaRoutingDataSource(primary, replicaPool);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReplicaRoutingDataSource.unpin();
+        mock.close();
+    }
+
+    @Test
+    void shouldConnectToNextHealthyReplica() throws SQLException {
+        // Arrange
+        when(replicaPool.next()).thenReturn(Optional.of(replica));
+
+        // Act
+        var connection = dataSource.getConnection();
+
+        // Assert
+        assertThat(connection).isSameAs(replicaConnection);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void shouldConnectToPrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        // Arrange
+        when(replicaPool.next()).thenReturn(Optional.empty());
+
+        // Act
+        var connection = dataSource.getConnection();
+
+        // Assert
+        assertThat(connection).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryAndSkipReplicaWhenItRefusesConnection() throws SQLException {
+        // Arrange
+        when(replicaPool.next()).thenReturn(Optional.of(replica));
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+
+        // Act
+        var connection = dataSource.getConnection();
+
+        // Assert
+        assertThat(connection).isSameAs(primaryConnection);
+        verify(replicaPool, times(1)).markUnhealthy(replica, "Connection refused");
+    }
+
+    @Test
+    void shouldConnectToPrimaryWhilePinned() throws SQLException {
+        // Arrange
+        when(replicaPool.next()).thenReturn(Optional.of(replica));
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        // Act
+        var connection = dataSource.getConnection();
+
+        // Assert
+        assertThat(connection).isSameAs(primaryConnection);
+        verify(replicaPool, never()).next();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.api.datasource;
+
+import com.example.api.model.Message;
+import com.example.api.utils.MessageHelper;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+// Two separate in-memory databases stand in for the primary and its replica, which differ on one row
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+                "spring.jpa.open-in-view=false",
+                "message.datasource.replicas[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+                "message.datasource.replica-lag-query=SELECT 0",
+                "message.datasource.replica-check-interval=100ms"
+        })
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA_CONTENT = "Hello from the replica";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "root", "toor"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "root", "toor")
+                .locations("classpath:db/migration", "classpath:db/testdata")
+                .load()
+                .migrate();
+        replica.update("UPDATE message SET content = ? WHERE username = 'John'", REPLICA_CONTENT);
+    }
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+        await().atMost(Duration.ofSeconds(5)).until(() -> replicaPool.isHealthy("replica-0"));
+    }
+
+    @Test
+    void shouldWrapPrimaryInLazyRoutingProxy() {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+    }
+
+    @Test
+    void shouldServeReadOnlyQueriesFromReplica() {
+        given()
+                .filters(new AllureRestAssured())
+                .queryParam("cursor", "")
+                .queryParam("size", 100)
+                .when()
+                .get("/messages")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("content.content", hasItem(REPLICA_CONTENT));
+    }
+
+    @Test
+    void shouldWriteToPrimaryAndPinItsClientToPrimary() {
+        var response = given()
+                .filters(new AllureRestAssured())
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(MessageHelper.createMessage())
+                .when()
+                .post("/messages")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .header("Set-Cookie", containsString(ReadYourWritesFilter.COOKIE_NAME + "=1"))
+                .extract();
+        var message = response.as(Message.class);
+
+        given()
+                .filters(new AllureRestAssured())
+                .cookie(ReadYourWritesFilter.COOKIE_NAME, response.cookie(ReadYourWritesFilter.COOKIE_NAME))
+                .queryParam("cursor", "")
+                .queryParam("size", 100)
+                .when()
+                .get("/messages")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("content.id", hasItem(message.getId().toString()))
+                .body("content.content", not(hasItem(REPLICA_CONTENT)));
+
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM message WHERE id = ?", Long.class, message.getId()))
+                .isZero();
+    }
+
+    @Test
+    void shouldNotServePinnedClientCachedVersionFromLaggingReplica() {
+        var id = UUID.fromString("cf9f5083-c5fb-4061-91cf-cd80eec30c89");
+        var message = Message.builder()
+                .id(id)
+                .username("John")
+                .content("Hello from the primary")
+                .updatedAt(LocalDateTime.now())
+                .build();
+        var update = given()
+                .filters(new AllureRestAssured())
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(message)
+                .when()
+                .put("/messages/{id}", id)
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .header("ETag", equalTo("\"1\""))
+                .extract();
+        var cookie = update.cookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        // Another client loads the version the replica has not replaced yet into the cache
+        given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/messages/{id}", id)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", equalTo("\"0\""));
+
+        given()
+                .filters(new AllureRestAssured())
+                .cookie(ReadYourWritesFilter.COOKIE_NAME, cookie)
+                .when()
+                .get("/messages/{id}", id)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", equalTo("\"1\""))
+                .body("content", equalTo("Hello from the primary"));
+
+        given()
+                .filters(new AllureRestAssured())
+                .cookie(ReadYourWritesFilter.COOKIE_NAME, cookie)
+                .header("If-Match", "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(message)
+                .when()
+                .put("/messages/{id}", id)
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value());
+    }
+}
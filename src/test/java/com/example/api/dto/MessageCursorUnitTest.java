@@ -0,0 +1,58 @@
+package com.example.api.dto;
+
+import com.example.api.utils.MessageHelper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageCursorUnitTest {
+
+    @Test
+    void shouldAllowEncodeAndDecodeCursor() {
+        // Arrange
+        var cursor = new MessageCursor(LocalDateTime.of(2023, 1, 15, 0, 1, 0, 123456000), UUID.randomUUID());
+
+        // Act
+        var result = MessageCursor.decode(cursor.encode());
+
+        // Assert
+        assertThat(result).isEqualTo(cursor);
+    }
+
+    @Test
+    void shouldAllowCreateCursorFromMessage() {
+        // Arrange
+        var message = MessageHelper.createFullMessage();
+
+        // Act
+        var cursor = MessageCursor.of(message);
+
+        // Assert
+        assertThat(cursor.createdAt()).isEqualTo(message.getCreatedAt());
+        assertThat(cursor.id()).isEqualTo(message.getId());
+    }
+
+    @Test
+    void shouldProduceUrlSafeCursor() {
+        // Arrange
+        var cursor = new MessageCursor(LocalDateTime.now(), UUID.randomUUID());
+
+        // Act
+        var encoded = cursor.encode();
+
+        // Assert
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDecodeIfCursorIsMalformed() {
+        assertThatThrownBy(() -> MessageCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MessageCursor.decode("bm90LWEtY3Vyc29y"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.api.export;
+
+import com.example.api.dto.MessageSummary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvMessageExportWriterUnitTest {
+
+    @Test
+    void shouldWriteHeaderAndOneRowPerMessage() throws IOException {
+        // Arrange
+        var output = new ByteArrayOutputStream();
+        var timestamp = LocalDateTime.of(2023, 1, 15, 0, 1, 0, 100_000_000);
+        var message = new MessageSummary(
+                new UUID(0, 1), "John", "Hello, \"World\"\nAgain", timestamp, timestamp, 3);
+
+        // Act
+        try (var writer = new CsvMessageExportWriter(output)) {
+            writer.write(message);
+        }
+
+        // Assert
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                CsvMessageExportWriter.HEADER + "\r\n"
+                        + "00000000-0000-0000-0000-000000000001,John,\"Hello, \"\"World\"\"\nAgain\","
+                        + "2023-01-15 00:01:00.10000,2023-01-15 00:01:00.10000,3\r\n");
+    }
+
+    @Test
+    void shouldLeavePlainValuesUnquoted() {
+        assertThat(CsvMessageExportWriter.escape("Hello World")).isEqualTo("Hello World");
+        assertThat(CsvMessageExportWriter.escape(null)).isEmpty();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.api.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorUnitTest {
+
+    private static final Comparator<UUID> UNSIGNED_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    @Test
+    void shouldGenerateVersion7Identifier() {
+        // Arrange
+        var generator = new UuidV7Generator();
+
+        // Act
+        var id = generator.generate();
+
+        // Assert
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEmbedClockTimestamp() {
+        // Arrange
+        var instant = Instant.parse("2023-01-15T00:01:00.100Z");
+        var generator = new UuidV7Generator(Clock.fixed(instant, ZoneOffset.UTC));
+
+        // Act
+        var id = generator.generate();
+
+        // Assert
+        assertThat(timestampOf(id)).isEqualTo(instant.toEpochMilli());
+    }
+
+    @Test
+    void shouldGenerateIncreasingIdentifiersWithinSameMillisecond() {
+        // Arrange
+        var generator = new UuidV7Generator(Clock.fixed(Instant.now(), ZoneOffset.UTC));
+        var ids = new ArrayList<UUID>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.generate());
+        }
+
+        // Assert
+        assertThat(ids).isSortedAccordingTo(UNSIGNED_ORDER).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldGenerateIncreasingIdentifiersWhenClockMovesBackwards() {
+        // Arrange
+        var now = Instant.now();
+        var clock = new MutableClock(now);
+        var generator = new UuidV7Generator(clock);
+
+        // Act
+        var first = generator.generate();
+        clock.instant = now.minusSeconds(1);
+        var second = generator.generate();
+
+        // Assert
+        assertThat(UNSIGNED_ORDER.compare(first, second)).isNegative();
+    }
+
+    @Test
+    void shouldGenerateUniqueIdentifiersAcrossThreads() throws Exception {
+        // Arrange
+        var generator = new UuidV7Generator();
+        var threads = 8;
+        var idsPerThread = 10_000;
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        var executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    var previous = generator.generate();
+                    ids.add(previous);
+                    for (int j = 1; j < idsPerThread; j++) {
+                        var next = generator.generate();
+                        assertThat(UNSIGNED_ORDER.compare(previous, next)).isNegative();
+                        ids.add(next);
+                        previous = next;
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(ids).hasSize(threads * idsPerThread);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
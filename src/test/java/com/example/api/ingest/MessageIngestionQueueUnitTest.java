@@ -0,0 +1,316 @@
+package com.example.api.ingest;
+
+import com.example.api.config.MessageIngestProperties;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.exception.MessageQueueFullException;
+import com.example.api.id.UuidV7Generator;
+import com.example.api.model.Message;
+import com.example.api.service.MessageService;
+import com.example.api.utils.MessageHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MessageIngestionQueueUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private MessageService messageService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(messageService.saveMessages(anyList())).thenAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            return IntStream.range(0, messages.size())
+                    .mapToObj(index -> BatchItemResult.created(index, messages.get(index).getId()))
+                    .toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldAssignIdWhenAccepted() {
+        // Arrange
+        var queue = newQueue(10, 5);
+
+        // Act
+        var message = queue.accept(MessageHelper.createMessage());
+
+        // Assert
+        assertThat(message.getId()).isNotNull();
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("message.ingest.queue.size").gauge().value()).isEqualTo(1);
+        verify(messageService, never()).saveMessages(anyList());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAcceptIfMessageIsInvalid() {
+        // Arrange
+        var queue = newQueue(10, 5);
+        var message = MessageHelper.createMessage();
+        message.setContent("");
+
+        // Act & Assert
+        assertThatThrownBy(() -> queue.accept(message))
+                .isInstanceOf(ConstraintViolationException.class);
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAcceptIfQueueIsFull() {
+        // Arrange
+        var queue = newQueue(1, 5);
+        queue.accept(MessageHelper.createMessage());
+
+        // Act & Assert
+        assertThatThrownBy(() -> queue.accept(MessageHelper.createMessage()))
+                .isInstanceOf(MessageQueueFullException.class)
+                .hasMessage("Message queue is full");
+        assertThat(meterRegistry.get("message.ingest.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSaveQueuedMessagesInBatches() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 2);
+        for (int i = 0; i < 3; i++) {
+            queue.accept(MessageHelper.createMessage());
+        }
+
+        // Act
+        var first = queue.flush(Duration.ZERO);
+        var second = queue.flush(Duration.ZERO);
+        var third = queue.flush(Duration.ZERO);
+
+        // Assert
+        assertThat(List.of(first, second, third)).containsExactly(2, 1, 0);
+        verify(messageService, times(2)).saveMessages(anyList());
+        assertThat(meterRegistry.get("message.ingest.flush").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountMessagesThatCouldNotBeSaved() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5);
+        var message = queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList()))
+                .thenReturn(List.of(BatchItemResult.failed(0, message.getId(), "Message could not be saved")));
+        when(messageService.saveMessage(message)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act
+        queue.flush(Duration.ZERO);
+
+        // Assert
+        assertThat(meterRegistry.get("message.ingest.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryFailedBatchBeforeNewMessages() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5);
+        var failed = queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList()))
+                .thenThrow(new CannotGetJdbcConnectionException("database is down"))
+                .thenReturn(List.of(BatchItemResult.created(0, failed.getId())));
+        queue.flush(Duration.ZERO);
+        queue.accept(MessageHelper.createMessage());
+
+        // Act
+        var retried = queue.flush(Duration.ZERO);
+
+        // Assert
+        assertThat(retried).isEqualTo(1);
+        verify(messageService, times(2)).saveMessages(List.of(failed));
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("message.ingest.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSaveMessagesOfFailedChunkOneByOne() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5);
+        var saved = queue.accept(MessageHelper.createMessage());
+        var failed = queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList()))
+                .thenReturn(List.of(
+                        BatchItemResult.created(0, saved.getId()),
+                        BatchItemResult.failed(1, failed.getId(), "Message could not be saved")));
+
+        // Act
+        queue.flush(Duration.ZERO);
+
+        // Assert
+        verify(messageService, times(1)).saveMessages(List.of(saved, failed));
+        verify(messageService, times(1)).saveMessage(failed);
+        verify(messageService, never()).saveMessage(saved);
+        assertThat(queue.flush(Duration.ZERO)).isZero();
+    }
+
+    @Test
+    void shouldDeadLetterMessageThatCannotBeSavedAndKeepSavingOthers() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5);
+        var poison = queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList()))
+                .thenReturn(List.of(BatchItemResult.failed(0, poison.getId(), "Message could not be saved")))
+                .thenAnswer(invocation -> List.of(BatchItemResult.created(0, UUID.randomUUID())));
+        when(messageService.saveMessage(poison))
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(255)"));
+        queue.flush(Duration.ZERO);
+        var next = queue.accept(MessageHelper.createMessage());
+
+        // Act
+        var flushed = queue.flush(Duration.ZERO);
+
+        // Assert
+        assertThat(flushed).isEqualTo(1);
+        verify(messageService, times(1)).saveMessages(List.of(next));
+        verify(messageService, times(1)).saveMessage(poison);
+        assertThat(meterRegistry.get("message.ingest.dead.lettered").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("message.ingest.failed").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldDeadLetterMessageThatKeepsFailing() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5, Duration.ofSeconds(5), 3);
+        queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList())).thenThrow(new CannotGetJdbcConnectionException("database is down"));
+
+        // Act
+        for (int attempt = 0; attempt < 3; attempt++) {
+            queue.flush(Duration.ZERO);
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("message.ingest.failed").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("message.ingest.dead.lettered").counter().count()).isEqualTo(1);
+        assertThat(queue.flush(Duration.ZERO)).isZero();
+    }
+
+    @Test
+    void shouldNotSaveAgainMessageStoredBeforeFailureWasReported() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5);
+        var message = queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList())).thenThrow(new CannotGetJdbcConnectionException("commit lost"));
+        when(messageService.findStoredIds(List.of(message.getId()))).thenReturn(Set.of(message.getId()));
+
+        // Act
+        queue.flush(Duration.ZERO);
+        queue.flush(Duration.ZERO);
+
+        // Assert
+        verify(messageService, times(1)).saveMessages(anyList());
+        // Checked on the primary past the cache, which may still hold the id as missing
+        verify(messageService, never()).getMessage(any());
+        assertThat(queue.flush(Duration.ZERO)).isZero();
+    }
+
+    @Test
+    void shouldSaveFailedMessagesBeforeShutdownCompletes() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5);
+        var message = queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList()))
+                .thenThrow(new CannotGetJdbcConnectionException("database is down"))
+                .thenThrow(new CannotGetJdbcConnectionException("database is down"))
+                .thenReturn(List.of(BatchItemResult.created(0, message.getId())));
+        queue.start();
+
+        // Act
+        queue.shutdown();
+
+        // Assert
+        verify(messageService, times(3)).saveMessages(List.of(message));
+        assertThat(meterRegistry.get("message.ingest.lost").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldCountLostMessagesWhenShutdownTimesOut() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(10, 5, Duration.ofMillis(200));
+        var message = queue.accept(MessageHelper.createMessage());
+        when(messageService.saveMessages(anyList())).thenThrow(new CannotGetJdbcConnectionException("database is down"));
+        queue.start();
+
+        // Act
+        queue.shutdown();
+
+        // Assert
+        assertThat(meterRegistry.get("message.ingest.lost").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSaveEveryAcceptedMessageOnShutdown() throws InterruptedException {
+        // Arrange
+        var queue = newQueue(100, 10);
+        var accepted = new ArrayList<Message>();
+        for (int i = 0; i < 25; i++) {
+            accepted.add(queue.accept(MessageHelper.createMessage()));
+        }
+        queue.start();
+
+        // Act
+        queue.shutdown();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Message>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messageService, atLeastOnce()).saveMessages(captor.capture());
+        assertThat(captor.getAllValues().stream().flatMap(List::stream).toList())
+                .containsExactlyElementsOf(accepted);
+        assertThat(queue.size()).isZero();
+        assertThatThrownBy(() -> queue.accept(MessageHelper.createMessage()))
+                .isInstanceOf(MessageQueueFullException.class);
+    }
+
+    private MessageIngestionQueue newQueue(int capacity, int batchSize) {
+        return newQueue(capacity, batchSize, Duration.ofSeconds(5));
+    }
+
+    private MessageIngestionQueue newQueue(int capacity, int batchSize, Duration shutdownTimeout) {
+        return newQueue(capacity, batchSize, shutdownTimeout, 1000);
+    }
+
+    private MessageIngestionQueue newQueue(int capacity, int batchSize, Duration shutdownTimeout, int maxAttempts) {
+        return new MessageIngestionQueue(
+                messageService,
+                new UuidV7Generator(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new MessageIngestProperties(capacity, batchSize, Duration.ofMillis(10), shutdownTimeout,
+                        Duration.ofMillis(1), Duration.ofMillis(10), maxAttempts),
+                meterRegistry);
+    }
+}
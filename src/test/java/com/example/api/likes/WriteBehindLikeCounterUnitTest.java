@@ -0,0 +1,187 @@
+package com.example.api.likes;
+
+import com.example.api.config.MessageLikeProperties;
+import com.example.api.model.Message;
+import com.example.api.outbox.MessageOutbox;
+import com.example.api.repository.MessageRepository;
+import com.example.api.utils.MessageHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WriteBehindLikeCounterUnitTest {
+
+    private static final String ADD_LIKES =
+            "UPDATE message SET like_count = like_count + ?, version = version + 1 WHERE id = ?";
+
+    private WriteBehindLikeCounter likeCounter;
+
+    private Cache messageCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private MessageOutbox messageOutbox;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        messageCache = new ConcurrentMapCache("messages");
+        likeCounter = new WriteBehindLikeCounter(
+                jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                messageCache,
+                taskScheduler,
+                new MessageLikeProperties(true, Duration.ofSeconds(1)),
+                messageRepository,
+                messageOutbox);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldQueueLikeWithoutTouchingDatabase() {
+        // Act
+        var applied = likeCounter.increment(UUID.randomUUID());
+
+        // Assert
+        assertThat(applied).isFalse();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldFlushConcurrentLikesAsSingleBatch() throws Exception {
+        // Arrange
+        var hotId = UUID.randomUUID();
+        var otherId = UUID.randomUUID();
+        messageCache.put(hotId, "cached");
+        var executor = Executors.newFixedThreadPool(8);
+        var futures = new ArrayList<Future<?>>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int like = 0; like < 1000; like++) {
+                    likeCounter.increment(hotId);
+                }
+            }));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        likeCounter.increment(otherId);
+
+        // Act
+        likeCounter.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ADD_LIKES), batchCaptor.capture());
+        assertThat(batchCaptor.getValue())
+                .extracting(row -> row[1], row -> row[0])
+                .containsExactlyInAnyOrder(
+                        tuple(hotId, 8000L),
+                        tuple(otherId, 1L));
+        assertThat(messageCache.get(hotId)).isNull();
+    }
+
+    @Test
+    void shouldRecordLikedMessagesAsUpdatedInFlushTransaction() {
+        // Arrange
+        var likedMessage = MessageHelper.createFullMessage();
+        likeCounter.increment(likedMessage.getId());
+        likeCounter.increment(likedMessage.getId());
+        when(messageRepository.findAllById(Set.of(likedMessage.getId()))).thenReturn(List.of(likedMessage));
+
+        // Act
+        likeCounter.flush();
+
+        // Assert
+        var inOrder = inOrder(jdbcTemplate, messageOutbox, transactionManager);
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(ADD_LIKES), anyList());
+        inOrder.verify(messageOutbox).recordUpdated(List.of(likedMessage));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWhenNothingIsPending() {
+        // Arrange
+        likeCounter.increment(UUID.randomUUID());
+        likeCounter.flush();
+        clearInvocations(jdbcTemplate);
+
+        // Act
+        likeCounter.flush();
+        likeCounter.flush();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldRetryLikesWhenFlushFails() {
+        // Arrange
+        var id = UUID.randomUUID();
+        likeCounter.increment(id);
+        likeCounter.increment(id);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+        likeCounter.flush();
+        likeCounter.increment(id);
+
+        // Act
+        likeCounter.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(ADD_LIKES), batchCaptor.capture());
+        verify(messageOutbox, times(1)).recordUpdated(ArgumentMatchers.<List<Message>>any());
+        assertThat(batchCaptor.getAllValues().get(1))
+                .extracting(row -> row[1], row -> row[0])
+                .containsExactly(tuple(id, 3L));
+    }
+}
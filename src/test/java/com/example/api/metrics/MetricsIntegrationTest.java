@@ -0,0 +1,54 @@
+package com.example.api.metrics;
+
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+@AutoConfigureObservability
+class MetricsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void shouldExposeHotPathMetricsForPrometheus() {
+        given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/messages/{id}", "cf9f5083-c5fb-4061-91cf-cd80eec30c89")
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .filters(new AllureRestAssured())
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body(containsString("message_service_seconds_bucket{exception=\"none\",operation=\"getMessage\",outcome=\"SUCCESS\""))
+                .body(containsString("message_service_seconds_bucket{exception=\"none\",operation=\"getMessage\",outcome=\"SUCCESS\",le=\"0.01\"}"))
+                .body(containsString("http_server_requests_seconds_bucket{"))
+                .body(containsString("spring_data_repository_invocations_seconds_bucket{"))
+                .body(containsString("hibernate_statements_per_request_statements_bucket{method=\"GET\",uri=\"/messages/{id}\""))
+                .body(containsString("hibernate_entities_loads_total"));
+    }
+}
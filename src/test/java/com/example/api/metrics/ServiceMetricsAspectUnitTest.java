@@ -0,0 +1,98 @@
+package com.example.api.metrics;
+
+import com.example.api.exception.MessageNotFoundException;
+import com.example.api.service.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+class ServiceMetricsAspectUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MessageService messageService;
+
+    @Mock
+    private MessageService targetService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        var proxyFactory = new AspectJProxyFactory(targetService);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        messageService = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldTimeSuccessfulOperation() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(targetService.deleteMessage(id)).thenReturn(true);
+
+        // Act
+        messageService.deleteMessage(id);
+
+        // Assert
+        var timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("operation", "deleteMessage")
+                .tag("outcome", "SUCCESS")
+                .tag("exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTagNotFoundOutcome() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(targetService.getMessage(id)).thenThrow(new MessageNotFoundException("Message not found"));
+
+        // Act
+        assertThatThrownBy(() -> messageService.getMessage(id))
+                .isInstanceOf(MessageNotFoundException.class);
+
+        // Assert
+        var timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("operation", "getMessage")
+                .tag("outcome", "NOT_FOUND")
+                .tag("exception", "MessageNotFoundException")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTagErrorOutcome() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(targetService.likeMessage(id)).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        assertThatThrownBy(() -> messageService.likeMessage(id))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Assert
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("operation", "likeMessage")
+                .tag("outcome", "ERROR")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.api.outbox;
+
+import com.example.api.config.MessageOutboxProperties;
+import com.example.api.dto.MessageChange;
+import com.example.api.dto.MessageSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileMessageChangeSinkUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldAppendOneJsonLinePerChange() throws IOException {
+        // Arrange
+        var file = directory.resolve("changes.ndjson");
+        var sink = new FileMessageChangeSink(
+                new MessageOutboxProperties(Duration.ofSeconds(1), 500, file, Duration.ofDays(7)), objectMapper);
+        var timestamp = LocalDateTime.parse("2023-01-15T00:01:00.100");
+        var message = new MessageSummary(UUID.randomUUID(), "John", "Hello, World!", timestamp, timestamp, 0);
+        var created = new MessageChange(1, MessageChange.Type.CREATED, message.id(), timestamp, message);
+        var deleted = new MessageChange(2, MessageChange.Type.DELETED, UUID.randomUUID(), timestamp, null);
+
+        // Act
+        sink.publish(List.of(created));
+        sink.publish(List.of(deleted));
+
+        // Assert
+        var lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(0), MessageChange.class)).isEqualTo(created);
+        assertThat(objectMapper.readTree(lines.get(1)).get("type").asText()).isEqualTo("DELETED");
+        assertThat(objectMapper.readTree(lines.get(1)).has("message")).isFalse();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.api.outbox;
+
+import com.example.api.dto.MessageChange;
+import com.example.api.event.MessageChangedEvent;
+import com.example.api.exception.MessageVersionConflictException;
+import com.example.api.model.Message;
+import com.example.api.service.MessageService;
+import com.example.api.utils.MessageHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class MessageOutboxIntegrationTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageOutbox messageOutbox;
+
+    @Autowired
+    private MessageOutboxRelay messageOutboxRelay;
+
+    @Autowired
+    private ChangeListener changeListener;
+
+    @Test
+    void shouldPublishEveryChangeOfMessageInOrder() {
+        // Arrange
+        var message = messageService.registerMessage(MessageHelper.createMessage());
+        var update = Message.builder()
+                .id(message.getId())
+                .content("Hello, Again!")
+                .updatedAt(message.getUpdatedAt())
+                .build();
+        messageService.updateMessage(message.getId(), update);
+        messageService.deleteMessage(message.getId());
+
+        // Act
+        messageOutboxRelay.relay();
+
+        // Assert
+        var changes = changesOf(message.getId(), messageOutbox.changesAfter(0, Integer.MAX_VALUE));
+        assertThat(changes)
+                .extracting(MessageChange::type)
+                .containsExactly(MessageChange.Type.CREATED, MessageChange.Type.UPDATED, MessageChange.Type.DELETED);
+        assertThat(changes.get(0).sequence()).isLessThan(changes.get(1).sequence());
+        assertThat(changes.get(1).sequence()).isLessThan(changes.get(2).sequence());
+        assertThat(changes.get(0).message().content()).isEqualTo(message.getContent());
+        assertThat(changes.get(1).message().content()).isEqualTo("Hello, Again!");
+        assertThat(changes.get(2).message()).isNull();
+        assertThat(changesOf(message.getId(), changeListener.changes)).containsExactlyElementsOf(changes);
+    }
+
+    @Test
+    void shouldNotRecordChangeWhenMutationRollsBack() {
+        // Arrange
+        var message = messageService.registerMessage(MessageHelper.createMessage());
+        var update = Message.builder()
+                .id(message.getId())
+                .content("Hello, Again!")
+                .updatedAt(message.getUpdatedAt())
+                .build();
+
+        // Act
+        assertThatThrownBy(() -> messageService.updateMessage(message.getId(), update, message.getVersion() + 1))
+                .isInstanceOf(MessageVersionConflictException.class);
+        messageOutboxRelay.relay();
+
+        // Assert
+        assertThat(changesOf(message.getId(), messageOutbox.changesAfter(0, Integer.MAX_VALUE)))
+                .extracting(MessageChange::type, MessageChange::messageId)
+                .containsExactly(tuple(MessageChange.Type.CREATED, message.getId()));
+    }
+
+    @Test
+    void shouldRecordLikeAsUpdatedChange() {
+        // Arrange
+        var message = messageService.registerMessage(MessageHelper.createMessage());
+
+        // Act
+        messageService.likeMessage(message.getId());
+        messageOutboxRelay.relay();
+
+        // Assert
+        var changes = changesOf(message.getId(), messageOutbox.changesAfter(0, Integer.MAX_VALUE));
+        assertThat(changes)
+                .extracting(MessageChange::type)
+                .containsExactly(MessageChange.Type.CREATED, MessageChange.Type.UPDATED);
+        assertThat(changes.get(1).message().likeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPrunePublishedChangesButKeepLastSequenceNumber() {
+        // Arrange
+        var first = messageService.registerMessage(MessageHelper.createMessage());
+        var last = messageService.registerMessage(MessageHelper.createMessage());
+        messageOutboxRelay.relay();
+        var lastSequence = changesOf(last.getId(), messageOutbox.changesAfter(0, Integer.MAX_VALUE)).get(0).sequence();
+
+        // Act
+        messageOutbox.prunePublished(LocalDateTime.now().plusMinutes(1), Integer.MAX_VALUE);
+        var next = messageService.registerMessage(MessageHelper.createMessage());
+        messageOutboxRelay.relay();
+
+        // Assert
+        var changes = messageOutbox.changesAfter(0, Integer.MAX_VALUE);
+        assertThat(changesOf(first.getId(), changes)).isEmpty();
+        assertThat(changesOf(last.getId(), changes)).extracting(MessageChange::sequence).containsExactly(lastSequence);
+        assertThat(changesOf(next.getId(), changes)).extracting(MessageChange::sequence).containsExactly(lastSequence + 1);
+    }
+
+    @Test
+    void shouldNotPublishChangesTwice() {
+        // Arrange
+        messageService.registerMessage(MessageHelper.createMessage());
+        messageOutboxRelay.relay();
+
+        // Act
+        var relayed = messageOutboxRelay.relay();
+
+        // Assert
+        assertThat(relayed).isZero();
+    }
+
+    private static List<MessageChange> changesOf(UUID messageId, List<MessageChange> changes) {
+        return changes.stream()
+                .filter(change -> change.messageId().equals(messageId))
+                .toList();
+    }
+
+    static class ChangeListener {
+
+        private final List<MessageChange> changes = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onMessageChanged(MessageChangedEvent event) {
+            changes.add(event.change());
+        }
+    }
+
+    @TestConfiguration
+    static class ChangeListenerConfig {
+
+        @Bean
+        ChangeListener changeListener() {
+            return new ChangeListener();
+        }
+    }
+}
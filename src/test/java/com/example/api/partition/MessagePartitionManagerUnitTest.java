@@ -0,0 +1,271 @@
+package com.example.api.partition;
+
+import com.example.api.config.MessagePartitionProperties;
+import com.example.api.partition.MessagePartitionManager.Partition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MessagePartitionManagerUnitTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-06-15T10:00:00Z"), ZoneOffset.UTC);
+
+    private Cache messageCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        messageCache = new ConcurrentMapCache("messages");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldCreateCurrentAndUpcomingPartitions() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ZERO);
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        verify(jdbcTemplate).queryForObject("SELECT create_message_partition(?)", String.class, LocalDate.of(2024, 6, 1));
+        verify(jdbcTemplate).queryForObject("SELECT create_message_partition(?)", String.class, LocalDate.of(2024, 7, 1));
+        verify(jdbcTemplate).queryForObject("SELECT create_message_partition(?)", String.class, LocalDate.of(2024, 8, 1));
+        verify(jdbcTemplate).queryForObject("SELECT create_message_partition(?)", String.class, LocalDate.of(2024, 9, 1));
+        verify(jdbcTemplate, times(4)).queryForObject(anyString(), eq(String.class), any(LocalDate.class));
+    }
+
+    @Test
+    void shouldKeepEveryPartitionWithoutRetention() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ZERO);
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        verify(jdbcTemplate, never()).query(anyString(), ArgumentMatchers.<RowMapper<Partition>>any());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void shouldDetachAndDropPartitionsThatEndedBeforeRetention() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ofMonths(2));
+        givenPartitions(
+                new Partition("message_2024_04", true, false),
+                new Partition("message_2024_03", true, false),
+                new Partition("message_2024_02", true, false),
+                new Partition("message_2024_06", true, false));
+        var cachedId = UUID.randomUUID();
+        messageCache.put(cachedId, "message");
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE message DETACH PARTITION message_2024_02 CONCURRENTLY");
+        inOrder.verify(jdbcTemplate).update(contains("FROM message_2024_02"), eq(LocalDateTime.now(CLOCK)));
+        inOrder.verify(jdbcTemplate).update(contains("FROM message_2024_02 GROUP BY username"));
+        inOrder.verify(jdbcTemplate).execute("DROP TABLE message_2024_02");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE message DETACH PARTITION message_2024_03 CONCURRENTLY");
+        inOrder.verify(jdbcTemplate).execute("DROP TABLE message_2024_03");
+        verify(jdbcTemplate, times(4)).execute(anyString());
+        assertThat(messageCache.get(cachedId)).isNull();
+    }
+
+    @Test
+    void shouldRecordDroppedMessagesAsDeleted() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ofMonths(2));
+        givenPartitions(new Partition("message_2024_02", true, false));
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        verify(jdbcTemplate).update(
+                contains("INSERT INTO message_outbox (change_type, message_id, payload, occurred_at)"),
+                eq(LocalDateTime.now(CLOCK)));
+    }
+
+    @Test
+    void shouldFinalizePendingDetachBeforeDrop() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ofMonths(2));
+        givenPartitions(new Partition("message_2024_02", true, true));
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE message DETACH PARTITION message_2024_02 FINALIZE");
+        inOrder.verify(jdbcTemplate).execute("DROP TABLE message_2024_02");
+        verify(jdbcTemplate, never()).execute(contains("CONCURRENTLY"));
+    }
+
+    @Test
+    void shouldDropDetachedPartitionLeftByFailedRun() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ofMonths(2));
+        givenPartitions(new Partition("message_2024_02", false, false));
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION"));
+        verify(jdbcTemplate).execute("DROP TABLE message_2024_02");
+    }
+
+    @Test
+    void shouldNotThrowWhenMaintenanceFails() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ofMonths(2));
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(LocalDate.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertThatCode(partitionManager::maintain).doesNotThrowAnyException();
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void shouldReportUpWhenNewestPartitionReachesNextMonth() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ZERO);
+        givenNewestPartition("message_2024_07");
+
+        // Act
+        var health = partitionManager.health();
+
+        // Assert
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("newestPartition", "2024-07");
+    }
+
+    @Test
+    void shouldReportDownWhenNewestPartitionDoesNotReachNextMonth() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ZERO);
+        givenNewestPartition("message_2024_06");
+
+        // Act
+        var health = partitionManager.health();
+
+        // Assert
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    void shouldReportDownWhenPartitionsCannotBeRead() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ZERO);
+        when(jdbcTemplate.queryForObject(contains("MAX(c.relname)"), eq(String.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act
+        var health = partitionManager.health();
+
+        // Assert
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    void shouldCreatePartitionsBeforeSchedulingMaintenance() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ZERO);
+        givenNewestPartition("message_2024_09");
+
+        // Act
+        partitionManager.scheduleMaintenance();
+
+        // Assert
+        var inOrder = inOrder(jdbcTemplate, taskScheduler);
+        inOrder.verify(jdbcTemplate, times(4)).queryForObject(anyString(), eq(String.class), any(LocalDate.class));
+        inOrder.verify(taskScheduler).scheduleWithFixedDelay(
+                any(Runnable.class), eq(Instant.now(CLOCK).plus(Duration.ofHours(1))), eq(Duration.ofHours(1)));
+    }
+
+    @Test
+    void shouldFailStartupWhenNewestPartitionDoesNotReachNextMonth() {
+        // Arrange
+        var partitionManager = partitionManager(Period.ZERO);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(LocalDate.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        givenNewestPartition("message_2024_06");
+
+        // Act & Assert
+        assertThatThrownBy(partitionManager::scheduleMaintenance)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The newest message partition, 2024-06, does not reach next month");
+        verifyNoInteractions(taskScheduler);
+    }
+
+    private void givenNewestPartition(String name) {
+        when(jdbcTemplate.queryForObject(contains("MAX(c.relname)"), eq(String.class))).thenReturn(name);
+    }
+
+    private void givenPartitions(Partition... partitions) {
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Partition>>any()))
+                .thenReturn(List.of(partitions));
+    }
+
+    private MessagePartitionManager partitionManager(Period retention) {
+        return new MessagePartitionManager(
+                jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                messageCache,
+                taskScheduler,
+                new MessagePartitionProperties(true, 3, retention, Duration.ofHours(1)),
+                CLOCK);
+    }
+}
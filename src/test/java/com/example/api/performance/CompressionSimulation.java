@@ -0,0 +1,81 @@
+package com.example.api.performance;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.atOnceUsers;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.header;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Reads the same message pages with and without gzip, one scenario after the other, so the
+ * report shows the latency of both side by side. Response sizes are compared with curl, see the
+ * README.
+ */
+public class CompressionSimulation extends Simulation {
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+
+    private static final int PAGE_SIZE = Integer.getInteger("pageSize", 100);
+
+    private static final int USERS_PER_SECOND = Integer.getInteger("usersPerSecond", 20);
+
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("durationSeconds", 30));
+
+    private final HttpProtocolBuilder httpProtocolBuilder = http.baseUrl(BASE_URL)
+            .header("Content-Type", "application/json");
+
+    ScenarioBuilder scenarioBuilderSeedMessages = scenario("Seed messages")
+            .exec(http("request: add messages")
+                    .post("/messages/batch")
+                    .body(StringBody(seedBatch()))
+                    .check(status().is(201)));
+
+    ScenarioBuilder scenarioBuilderListIdentity = scenario("List messages without compression")
+            .exec(http("request: list messages (identity)")
+                    .get("/messages?page=0&size=" + PAGE_SIZE)
+                    .header("Accept-Encoding", "identity")
+                    .check(status().is(200))
+                    .check(header("Content-Encoding").notExists()));
+
+    ScenarioBuilder scenarioBuilderListGzip = scenario("List messages with gzip")
+            .exec(http("request: list messages (gzip)")
+                    .get("/messages?page=0&size=" + PAGE_SIZE)
+                    .header("Accept-Encoding", "gzip")
+                    .check(status().is(200))
+                    .check(header("Content-Encoding").is("gzip")));
+
+    private static String seedBatch() {
+        var batch = new StringBuilder("[");
+        for (int index = 0; index < PAGE_SIZE; index++) {
+            if (index > 0) {
+                batch.append(',');
+            }
+            batch.append("{ \"username\": \"John\", \"content\": \"Hello, World! ")
+                    .append(index)
+                    .append("\" }");
+        }
+        return batch.append(']').toString();
+    }
+
+    {
+        setUp(
+                scenarioBuilderSeedMessages.injectOpen(atOnceUsers(1))
+                        .andThen(scenarioBuilderListIdentity.injectOpen(
+                                constantUsersPerSec(USERS_PER_SECOND).during(DURATION)))
+                        .andThen(scenarioBuilderListGzip.injectOpen(
+                                constantUsersPerSec(USERS_PER_SECOND).during(DURATION)))
+        )
+            .protocols(httpProtocolBuilder)
+            .assertions(
+                    global().failedRequests().count().is(0L)
+            );
+    }
+}
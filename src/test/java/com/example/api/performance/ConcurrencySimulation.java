@@ -0,0 +1,64 @@
+package com.example.api.performance;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantConcurrentUsers;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampConcurrentUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Holds a fixed number of concurrent users on the blocking JDBC endpoints. Run it once against
+ * the default platform threads and once with the virtual-threads profile to compare both modes.
+ */
+public class ConcurrencySimulation extends Simulation {
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+
+    private static final int USERS = Integer.getInteger("users", 1000);
+
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("durationSeconds", 60));
+
+    private final HttpProtocolBuilder httpProtocolBuilder = http.baseUrl(BASE_URL)
+            .header("Content-Type", "application/json")
+            .shareConnections();
+
+    ScenarioBuilder scenarioBuilderReadWrite = scenario("Concurrent read and write")
+            .exec(http("request: add message")
+                    .post("/messages")
+                    .body(StringBody("{ \"username\": \"John\", \"content\": \"Hello, World!\" }"))
+                    .check(status().is(201))
+                    .check(jsonPath("$.id").saveAs("messageId")))
+            .repeat(5).on(
+                    exec(http("request: get message")
+                            .get("/messages/#{messageId}")
+                            .check(status().is(200))),
+                    exec(http("request: like message")
+                            .post("/messages/#{messageId}/likes")
+                            .check(status().in(200, 202))),
+                    exec(http("request: scroll messages")
+                            .get("/messages?cursor=&size=20")
+                            .check(status().is(200))));
+
+    {
+        setUp(
+                scenarioBuilderReadWrite.injectClosed(
+                        rampConcurrentUsers(0).to(USERS).during(Duration.ofSeconds(10)),
+                        constantConcurrentUsers(USERS).during(DURATION)
+                )
+        )
+            .protocols(httpProtocolBuilder)
+            .assertions(
+                    global().failedRequests().percent().lt(1.0),
+                    global().responseTime().percentile(95).lt(2000)
+            );
+    }
+}
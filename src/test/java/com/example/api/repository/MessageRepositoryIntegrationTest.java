@@ -2,12 +2,14 @@ package com.example.api.repository;
 
 import com.example.api.model.Message;
 import jakarta.transaction.Transactional;
+import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,6 +24,9 @@ public class MessageRepositoryIntegrationTest {
     @Autowired
     private MessageRepository messageRepository;
 
+    @Autowired
+    private Flyway flyway;
+
     private Message createMessage(){
         return Message.builder()
                 .id(UUID.randomUUID())
@@ -37,6 +42,16 @@ public class MessageRepositoryIntegrationTest {
         assertThat(rowCount).isNotNegative();
     }
 
+    @Test
+    void shouldApplyAllSchemaMigrations() {
+        // Act
+        var info = flyway.info();
+
+        // Assert
+        assertThat(info.pending()).isEmpty();
+        assertThat(info.applied()).isNotEmpty();
+    }
+
     @Test
     void shouldAllowRegisterMessage(){
         // Arrange
@@ -56,6 +71,21 @@ public class MessageRepositoryIntegrationTest {
         assertThat(message.getUsername()).isEqualTo(newMessage.getUsername());
     }
 
+    @Test
+    void shouldAllowDetectNewMessage() {
+        // Arrange
+        var newMessage = createMessage();
+
+        // Act
+        var isNewBeforeSave = newMessage.isNew();
+        var message = messageRepository.save(newMessage);
+
+        // Assert
+        assertThat(isNewBeforeSave).isTrue();
+        assertThat(message).isSameAs(newMessage);
+        assertThat(message.isNew()).isFalse();
+    }
+
     @Test
     void shouldAllowDeleteMessage() {
         // Arrange
@@ -106,4 +136,37 @@ public class MessageRepositoryIntegrationTest {
         assertThat(messagesList).hasSizeGreaterThan(0);
 
     }
+
+    @Test
+    void shouldAllowUpdateMessageWithoutLoadingIt() {
+        // Arrange
+        var newMessage = createMessage();
+        messageRepository.save(newMessage);
+        var updatedAt = LocalDateTime.now();
+
+        // Act
+        var updatedRows = messageRepository.updateMessage(newMessage.getId(), "Hello, Again!", updatedAt);
+        var message = messageRepository.findById(newMessage.getId());
+
+        // Assert
+        assertThat(updatedRows).isEqualTo(1);
+        assertThat(message).isPresent();
+        message.ifPresent(messageObj -> assertThat(messageObj.getContent()).isEqualTo("Hello, Again!"));
+    }
+
+    @Test
+    void shouldAllowDeleteMessageWithoutLoadingIt() {
+        // Arrange
+        var newMessage = createMessage();
+        messageRepository.save(newMessage);
+
+        // Act
+        var deletedRows = messageRepository.deleteMessage(newMessage.getId());
+        var missingRows = messageRepository.deleteMessage(UUID.randomUUID());
+
+        // Assert
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(missingRows).isZero();
+        assertThat(messageRepository.findById(newMessage.getId())).isEmpty();
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.api.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchQueryUnitTest {
+
+    @Test
+    void shouldSplitTextIntoLowerCaseTerms() {
+        // Act
+        var query = SearchQuery.parse("Hello, World! 02");
+
+        // Assert
+        assertThat(query.terms()).containsExactly("hello", "world", "02");
+    }
+
+    @Test
+    void shouldDropOperatorsAndDuplicateTerms() {
+        // Act
+        var query = SearchQuery.parse("hello & !hello | 'x':* olá");
+
+        // Assert
+        assertThat(query.terms()).containsExactly("hello", "x", "olá");
+    }
+
+    @Test
+    void shouldLimitNumberOfTerms() {
+        // Act
+        var query = SearchQuery.parse("a b c d e f g h i j");
+
+        // Assert
+        assertThat(query.terms()).hasSize(SearchQuery.MAX_TERMS);
+    }
+
+    @Test
+    void shouldBeEmptyWithoutLettersOrDigits() {
+        // Act
+        var query = SearchQuery.parse(" -- ");
+
+        // Assert
+        assertThat(query.isEmpty()).isTrue();
+    }
+}
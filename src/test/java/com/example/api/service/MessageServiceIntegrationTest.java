@@ -1,19 +1,31 @@
 package com.example.api.service;
 
+import com.example.api.count.CountMode;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSummary;
 import com.example.api.exception.MessageNotFoundException;
 import com.example.api.model.Message;
 import com.example.api.repository.MessageRepository;
 import com.example.api.utils.MessageHelper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,6 +45,15 @@ class MessageServiceIntegrationTest {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Nested
     class RegisterMessageTest {
         @Test
@@ -51,6 +72,55 @@ class MessageServiceIntegrationTest {
             assertThat(result.getCreatedAt()).isNotNull();
             assertThat(result.getLikeCount()).isNotNull();
         }
+
+        @Test
+        void shouldRegisterMessageWithSingleHibernateInsertStatement() {
+            // Arrange
+            var message = MessageHelper.createMessage();
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // Act
+            messageService.registerMessage(message);
+            entityManager.flush();
+
+            // Assert
+            // The message insert and the update of its user's count; the outbox row is written over
+            // JdbcTemplate, which Hibernate statistics do not see
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        }
+    }
+
+    @Nested
+    class RegisterMessagesTest {
+        @Test
+        void shouldAllowRegisterMessagesWithBatchedInserts() {
+            // Arrange
+            var messages = List.of(
+                    MessageHelper.createMessage(),
+                    MessageHelper.createMessage(),
+                    MessageHelper.createMessage(),
+                    Message.builder().username("John").build());
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // Act
+            var results = messageService.registerMessages(messages);
+            entityManager.flush();
+
+            // Assert
+            assertThat(results).extracting(BatchItemResult::status).containsExactly(
+                    BatchItemResult.Status.CREATED,
+                    BatchItemResult.Status.CREATED,
+                    BatchItemResult.Status.CREATED,
+                    BatchItemResult.Status.REJECTED);
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(3);
+            // One batched insert and one count update per user in the chunk, not counting the outbox batch
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            assertThat(messageRepository.findById(results.get(0).id())).isPresent();
+        }
     }
 
     @Nested
@@ -84,6 +154,29 @@ class MessageServiceIntegrationTest {
                     .isEqualTo(message.getLikeCount());
         }
 
+        @Test
+        void shouldServeGetMessageFromCache() {
+            // Arrange
+            var message = messageService.registerMessage(MessageHelper.createMessage());
+            entityManager.flush();
+            entityManager.clear();
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            var hits = meterRegistry.get("cache.gets")
+                    .tag("cache", "messages")
+                    .tag("result", "hit")
+                    .functionCounter();
+            var hitsBefore = hits.count();
+
+            // Act
+            var result = messageService.getMessage(message.getId());
+
+            // Assert
+            assertThat(result.getId()).isEqualTo(message.getId());
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+            assertThat(hits.count()).isEqualTo(hitsBefore + 1);
+        }
+
         @Test
         void shouldThrowExceptionWhenGetIfMessageIdNotFound() {
             // Arrange
@@ -136,9 +229,9 @@ class MessageServiceIntegrationTest {
         @Test
         void shouldThrowExceptionWhenUpdateIfMessageIdIsNotEqual() {
             // Arrange
-            var newMessage = MessageHelper.createMessage();
-            var message = messageService.registerMessage(newMessage);
+            var message = messageService.registerMessage(MessageHelper.createMessage());
             var id = message.getId();
+            var newMessage = MessageHelper.createMessage();
             newMessage.setId(UUID.randomUUID());
             newMessage.setContent("Hello, my friend!");
 
@@ -166,6 +259,25 @@ class MessageServiceIntegrationTest {
 
         }
 
+        @Test
+        void shouldDeleteMessageWithoutLoadingIt() {
+            // Arrange
+            var message = messageService.registerMessage(MessageHelper.createMessage());
+            entityManager.flush();
+            entityManager.clear();
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // Act
+            messageService.deleteMessage(message.getId());
+
+            // Assert
+            // The update of its user's count and the delete
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+            assertThat(messageRepository.findById(message.getId())).isEmpty();
+        }
+
         @Test
         void shouldThrowExceptionWhenDeleteIfMessageIdNotFound() {
             // Arrange
@@ -179,6 +291,92 @@ class MessageServiceIntegrationTest {
         }
     }
 
+    @Nested
+    class UserMessagesTest {
+        @Test
+        void shouldMaintainUserMessageCount() {
+            // Arrange
+            var username = "User " + UUID.randomUUID();
+            var first = messageService.registerMessage(Message.builder().username(username).content("First").build());
+            messageService.registerMessages(List.of(
+                    Message.builder().username(username).content("Second").build(),
+                    Message.builder().username(username).content("Third").build()));
+
+            // Act
+            messageService.deleteMessage(first.getId());
+
+            // Assert
+            assertThat(messageService.countUserMessages(username)).isEqualTo(2);
+        }
+
+        @Test
+        void shouldNotDecrementUserMessageCountWhenDeleteIfMessageIdNotFound() {
+            // Arrange
+            var countBefore = messageService.countUserMessages("Adam");
+
+            // Act & Assert
+            assertThatThrownBy(() -> messageService.deleteMessage(UUID.randomUUID()))
+                    .isInstanceOf(MessageNotFoundException.class);
+            assertThat(messageService.countUserMessages("Adam")).isEqualTo(countBefore);
+        }
+
+        @Test
+        void shouldScrollUserMessagesNewestFirst() {
+            // Arrange
+            var username = "User " + UUID.randomUUID();
+            var first = messageService.registerMessage(Message.builder().username(username).content("First").build());
+            var second = messageService.registerMessage(Message.builder().username(username).content("Second").build());
+            messageService.registerMessage(MessageHelper.createMessage());
+
+            // Act
+            var firstSlice = messageService.scrollUserMessages(username, null, 1);
+            var secondSlice = messageService.scrollUserMessages(
+                    username, MessageCursor.decode(firstSlice.nextCursor()), 1);
+
+            // Assert
+            assertThat(firstSlice.content()).extracting(MessageSummary::id).containsExactly(second.getId());
+            assertThat(firstSlice.hasNext()).isTrue();
+            assertThat(secondSlice.content()).extracting(MessageSummary::id).containsExactly(first.getId());
+            assertThat(secondSlice.hasNext()).isFalse();
+        }
+    }
+
+    @Nested
+    class LikeMessageTest {
+        @Test
+        void shouldAddLikeWithSingleUpdateAndReadForOutbox() {
+            // Arrange
+            var message = messageService.registerMessage(MessageHelper.createMessage());
+            entityManager.flush();
+            entityManager.clear();
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // Act
+            var applied = messageService.likeMessage(message.getId());
+            messageService.likeMessage(message.getId());
+
+            // Assert
+            assertThat(applied).isTrue();
+            // Per like, the update and the read of the new version for the outbox row, which is written
+            // over JdbcTemplate and not counted by Hibernate statistics
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+            assertThat(statistics.getEntityLoadCount()).isEqualTo(2);
+            assertThat(messageService.getMessage(message.getId()).getLikeCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldThrowExceptionWhenLikeIfMessageIdNotFound() {
+            // Arrange
+            var id = UUID.randomUUID();
+
+            // Act & Assert
+            assertThatThrownBy(() -> messageService.likeMessage(id))
+                    .isInstanceOf(MessageNotFoundException.class)
+                    .hasMessage("Message not found");
+        }
+    }
+
     @Nested
     class ListMessagesTest {
         @Test
@@ -188,15 +386,79 @@ class MessageServiceIntegrationTest {
 
             // Act
             messageService.registerMessage(newMessage);
-            Page<Message> messageListResult = messageService.listMessages(Pageable.unpaged());
+            Page<MessageSummary> messageListResult = messageService.listMessages(Pageable.unpaged());
 
             // Assert
             assertThat(messageListResult.getContent())
                     .asList()
                     .isNotEmpty()
                     .allSatisfy(message -> {
-                        assertThat(message).isInstanceOf(Message.class);
+                        assertThat(message).isInstanceOf(MessageSummary.class);
                     });
         }
+
+        @Test
+        void shouldListMessagesWithoutLoadingEntities() {
+            // Arrange
+            messageService.registerMessage(MessageHelper.createMessage());
+            entityManager.flush();
+            entityManager.clear();
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // Act
+            var page = messageService.listMessages(PageRequest.of(0, 2));
+
+            // Assert
+            assertThat(page.getContent()).hasSize(2);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        }
+
+        @Test
+        void shouldListMessagesWithApproximateCountInOneStatement() {
+            // Arrange
+            messageService.registerMessage(MessageHelper.createMessage());
+            messageService.registerMessage(MessageHelper.createMessage());
+            messageService.listMessages(PageRequest.of(0, 1), CountMode.APPROXIMATE);
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // Act
+            var page = messageService.listMessages(PageRequest.of(0, 1), CountMode.APPROXIMATE);
+
+            // Assert
+            assertThat(page.getContent()).hasSize(1);
+            assertThat(page.getTotalElements()).isGreaterThan(1);
+            // The page query only; the total comes from the cached estimate
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class ScrollMessagesTest {
+        @Test
+        void shouldAllowScrollThroughAllMessages() {
+            // Arrange
+            for (int i = 0; i < 5; i++) {
+                messageService.registerMessage(MessageHelper.createMessage());
+            }
+            var total = messageRepository.count();
+            var seen = new HashSet<UUID>();
+            MessageCursor cursor = null;
+
+            // Act
+            var slice = messageService.scrollMessages(cursor, 2);
+            seen.addAll(slice.content().stream().map(MessageSummary::id).toList());
+            while (slice.hasNext()) {
+                cursor = MessageCursor.decode(slice.nextCursor());
+                slice = messageService.scrollMessages(cursor, 2);
+                slice.content().forEach(message -> assertThat(seen.add(message.id())).isTrue());
+            }
+
+            // Assert
+            assertThat(seen).hasSize((int) total);
+            assertThat(slice.nextCursor()).isNull();
+        }
     }
 }
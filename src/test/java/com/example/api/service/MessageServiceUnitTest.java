@@ -1,46 +1,125 @@
 package com.example.api.service;
 
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.config.MessagePageProperties;
+import com.example.api.count.ApproximateMessageCount;
+import com.example.api.count.CountMode;
+import com.example.api.datasource.ReplicaRoutingDataSource;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageChange;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSummary;
+import com.example.api.event.MessageCreatedEvent;
+import com.example.api.event.MessageDeletedEvent;
 import com.example.api.exception.MessageNotFoundException;
+import com.example.api.exception.MessageVersionConflictException;
+import com.example.api.export.MessageExportWriter;
+import com.example.api.id.UuidV7Generator;
+import com.example.api.likes.LikeCounter;
 import com.example.api.model.Message;
+import com.example.api.model.UserMessageCount;
+import com.example.api.outbox.MessageOutbox;
 import com.example.api.repository.MessageRepository;
+import com.example.api.repository.UserMessageCountRepository;
+import com.example.api.search.MessageSearch;
+import com.example.api.search.SearchQuery;
 import com.example.api.utils.MessageHelper;
 import io.qameta.allure.Severity;
+import jakarta.validation.Validation;
 import io.qameta.allure.SeverityLevel;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class MessageServiceUnitTest {
 
     private MessageService messageService;
 
+    private Cache messageCache;
+
     @Mock
     private MessageRepository messageRepository;
 
+    @Mock
+    private LikeCounter likeCounter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MessageSearch messageSearch;
+
+    @Mock
+    private UserMessageCountRepository userMessageCountRepository;
+
+    @Mock
+    private ApproximateMessageCount approximateMessageCount;
+
+    @Mock
+    private MessageOutbox messageOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     AutoCloseable mock;
 
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        messageService = new MessageServiceImpl(messageRepository);
+        messageCache = new ConcurrentMapCache("messages");
+        messageService = new MessageServiceImpl(
+                messageRepository,
+                new UuidV7Generator(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new MessageBatchProperties(2, 10),
+                new MessagePageProperties(100),
+                messageCache,
+                likeCounter,
+                eventPublisher,
+                messageSearch,
+                userMessageCountRepository,
+                approximateMessageCount,
+                messageOutbox,
+                new TransactionTemplate(transactionManager));
     }
 
     @AfterEach
     void tearDown() throws Exception {
+        ReplicaRoutingDataSource.unpin();
         mock.close();
     }
 
@@ -65,6 +144,218 @@ class MessageServiceUnitTest {
         verify(messageRepository, times(1)).save(any(Message.class));
     }
 
+    @Test
+    void shouldIncrementUserCountWhenRegisterMessage() {
+        // Arrange
+        when(messageRepository.save(any(Message.class)))
+                .thenAnswer(index -> index.getArgument(0));
+        when(userMessageCountRepository.addMessages("John", 1)).thenReturn(1);
+
+        // Act
+        messageService.registerMessage(MessageHelper.createMessage());
+
+        // Assert
+        verify(userMessageCountRepository, times(1)).addMessages("John", 1);
+        verify(userMessageCountRepository, never()).createCount(anyString(), anyLong());
+    }
+
+    @Test
+    void shouldCreateUserCountWhenRegisterFirstMessageOfUser() {
+        // Arrange
+        when(messageRepository.save(any(Message.class)))
+                .thenAnswer(index -> index.getArgument(0));
+        when(userMessageCountRepository.addMessages("John", 1)).thenReturn(0);
+
+        // Act
+        messageService.registerMessage(MessageHelper.createMessage());
+
+        // Assert
+        verify(userMessageCountRepository, times(1)).createCount("John", 1);
+    }
+
+    @Test
+    void shouldRetryRegisterWhenUserCountIsCreatedConcurrently() {
+        // Arrange
+        when(messageRepository.save(any(Message.class)))
+                .thenAnswer(index -> index.getArgument(0));
+        when(userMessageCountRepository.addMessages("John", 1))
+                .thenReturn(0)
+                .thenReturn(1);
+        when(userMessageCountRepository.createCount("John", 1))
+                .thenThrow(new DuplicateKeyException("duplicate"));
+
+        // Act
+        var message = messageService.registerMessage(MessageHelper.createMessage());
+
+        // Assert
+        assertThat(message.getId()).isNotNull();
+        verify(messageRepository, times(2)).save(any(Message.class));
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void shouldInsertAgainMessagesOfRolledBackAttempt() {
+        // Arrange
+        var messages = List.of(MessageHelper.createMessage(), MessageHelper.createMessage());
+        messages.forEach(message -> message.setId(UUID.randomUUID()));
+        var insertedAsNew = new ArrayList<Boolean>();
+        when(messageRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Message> chunk = invocation.getArgument(0);
+                    // Hibernate marks the messages persisted even though the transaction then rolls back
+                    chunk.forEach(Message::prePersist);
+                    throw new DuplicateKeyException("duplicate key");
+                })
+                .thenAnswer(invocation -> {
+                    List<Message> chunk = invocation.getArgument(0);
+                    chunk.forEach(message -> insertedAsNew.add(message.isNew()));
+                    return chunk;
+                });
+
+        // Act
+        var results = messageService.saveMessages(messages);
+
+        // Assert
+        assertThat(results).extracting(BatchItemResult::status)
+                .containsOnly(BatchItemResult.Status.CREATED);
+        assertThat(insertedAsNew).containsExactly(true, true);
+    }
+
+    @Test
+    void shouldFindStoredIdsInReadWriteTransaction() {
+        // Arrange
+        var storedId = UUID.randomUUID();
+        var missingId = UUID.randomUUID();
+        when(messageRepository.findExistingIds(List.of(storedId, missingId))).thenReturn(List.of(storedId));
+
+        // Act
+        var storedIds = messageService.findStoredIds(List.of(storedId, missingId));
+
+        // Assert
+        assertThat(storedIds).containsExactly(storedId);
+        verify(transactionManager, times(1)).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        assertThat(messageCache.get(missingId)).isNull();
+    }
+
+    @Test
+    void shouldNotRetryRegisterWhenIntegrityViolationIsNotUniqueKey() {
+        // Arrange
+        when(messageRepository.save(any(Message.class)))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"CONTENT\""));
+
+        // Act & Assert
+        assertThatThrownBy(() -> messageService.registerMessage(MessageHelper.createMessage()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(messageRepository, times(1)).save(any(Message.class));
+    }
+
+    @Test
+    void shouldCountUserMessagesPerUsernameInChunk() {
+        // Arrange
+        var messages = List.of(
+                MessageHelper.createMessage(),
+                MessageHelper.createMessage(),
+                Message.builder().username("Adam").content("Hello").build());
+        when(userMessageCountRepository.addMessages(anyString(), anyLong())).thenReturn(1);
+
+        // Act
+        messageService.registerMessages(messages);
+
+        // Assert
+        verify(userMessageCountRepository, times(1)).addMessages("John", 2);
+        verify(userMessageCountRepository, times(1)).addMessages("Adam", 1);
+    }
+
+    @Test
+    void shouldAllowScrollUserMessages() {
+        // Arrange
+        var cursor = new MessageCursor(LocalDateTime.of(2023, 1, 15, 0, 2), UUID.randomUUID());
+        var summaries = List.of(
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage()));
+        when(messageRepository.scrollUserMessages("John", cursor.createdAt(), cursor.id(), Limit.of(2)))
+                .thenReturn(summaries);
+
+        // Act
+        var slice = messageService.scrollUserMessages("John", cursor, 1);
+
+        // Assert
+        assertThat(slice.content()).containsExactly(summaries.get(0));
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(MessageCursor.decode(slice.nextCursor())).isEqualTo(MessageCursor.of(summaries.get(0)));
+    }
+
+    @Test
+    void shouldReadUserMessageCountWithoutCounting() {
+        // Arrange
+        when(userMessageCountRepository.findById("John"))
+                .thenReturn(Optional.of(new UserMessageCount("John", 42)));
+
+        // Act
+        var count = messageService.countUserMessages("John");
+        var unknownCount = messageService.countUserMessages("Nobody");
+
+        // Assert
+        assertThat(count).isEqualTo(42);
+        assertThat(unknownCount).isZero();
+        verify(messageRepository, never()).count();
+    }
+
+    @Test
+    void shouldPublishCreatedEventWhenRegisterMessage() {
+        // Arrange
+        when(messageRepository.save(any(Message.class)))
+                .thenAnswer(index -> index.getArgument(0));
+
+        // Act
+        var message = messageService.registerMessage(MessageHelper.createMessage());
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new MessageCreatedEvent(MessageSummary.of(message)));
+    }
+
+    @Test
+    void shouldListMessagesAfterCursor() {
+        // Arrange
+        var cursor = new MessageCursor(LocalDateTime.of(2023, 1, 15, 0, 2), UUID.randomUUID());
+        var summary = MessageSummary.of(MessageHelper.createMessage());
+        when(messageRepository.listMessagesAfter(cursor.createdAt(), cursor.id(), Limit.of(5)))
+                .thenReturn(List.of(summary));
+
+        // Act
+        var messages = messageService.listMessagesAfter(cursor, 5);
+
+        // Assert
+        assertThat(messages).containsExactly(summary);
+    }
+
+    @Test
+    void shouldSearchMessagesWithOneExtraRow() {
+        // Arrange
+        var first = MessageSummary.of(MessageHelper.createFullMessage());
+        var second = MessageSummary.of(MessageHelper.createFullMessage());
+        when(messageSearch.search(new SearchQuery(List.of("hello", "world")), 2, 1))
+                .thenReturn(List.of(first, second));
+
+        // Act
+        var messages = messageService.searchMessages("Hello, world!", PageRequest.of(1, 1));
+
+        // Assert
+        assertThat(messages.getContent()).containsExactly(first);
+        assertThat(messages.hasNext()).isTrue();
+    }
+
+    @Test
+    void shouldNotSearchWhenQueryHasNoTerms() {
+        // Act
+        var messages = messageService.searchMessages("!?", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(messages.getContent()).isEmpty();
+        assertThat(messages.hasNext()).isFalse();
+        verifyNoInteractions(messageSearch);
+    }
+
     @Test
     @Severity(SeverityLevel.CRITICAL)
     void shouldAllowGetMessage() {
@@ -84,6 +375,55 @@ class MessageServiceUnitTest {
         verify(messageRepository, times(1)).findById(any(UUID.class));
     }
 
+    @Test
+    void shouldServeRepeatedGetMessageFromCache() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var newMessage = MessageHelper.createMessage();
+        newMessage.setId(id);
+        when(messageRepository.findById(id))
+                .thenReturn(Optional.of(newMessage));
+
+        // Act
+        messageService.getMessage(id);
+        var message = messageService.getMessage(id);
+
+        // Assert
+        assertThat(message).isEqualTo(newMessage);
+        verify(messageRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void shouldCacheUnknownMessageId() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(messageRepository.findById(id))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> messageService.getMessage(id))
+                .isInstanceOf(MessageNotFoundException.class);
+        assertThatThrownBy(() -> messageService.getMessage(id))
+                .isInstanceOf(MessageNotFoundException.class)
+                .hasMessage("Message not found");
+        verify(messageRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void shouldCacheRegisteredMessage() {
+        // Arrange
+        when(messageRepository.save(any(Message.class)))
+                .thenAnswer(index -> index.getArgument(0));
+        var message = messageService.registerMessage(MessageHelper.createMessage());
+
+        // Act
+        var cachedMessage = messageService.getMessage(message.getId());
+
+        // Assert
+        assertThat(cachedMessage).isSameAs(message);
+        verify(messageRepository, never()).findById(any(UUID.class));
+    }
+
     @Test
     @Severity(SeverityLevel.MINOR)
     void shouldThrowExceptionWhenGetIfMessageIdNotFound() {
@@ -111,10 +451,15 @@ class MessageServiceUnitTest {
         newMessage.setUsername((oldMessage.getUsername()));
         newMessage.setContent("Hello, Again!");
 
+        var storedMessage = MessageHelper.createMessage();
+        storedMessage.setId(id);
+        storedMessage.setContent(newMessage.getContent());
+
+        messageCache.put(id, oldMessage);
+        when(messageRepository.updateMessage(id, newMessage.getContent(), newMessage.getUpdatedAt()))
+                .thenReturn(1);
         when(messageRepository.findById(id))
-                .thenReturn(Optional.of(oldMessage));
-        when(messageRepository.save(any(Message.class)))
-                .thenAnswer(item -> item.getArgument(0));
+                .thenReturn(Optional.of(storedMessage));
 
         // Act
         var gottenMessage = messageService.updateMessage(id, newMessage);
@@ -124,8 +469,10 @@ class MessageServiceUnitTest {
         assertThat(gottenMessage.getId()).isEqualTo(newMessage.getId());
         assertThat(gottenMessage.getUsername()).isEqualTo(newMessage.getUsername());
         assertThat(gottenMessage.getContent()).isEqualTo(newMessage.getContent());
-        verify(messageRepository, times(1)).findById(any(UUID.class));
-        verify(messageRepository, times(1)).save(any(Message.class));
+        assertThat(messageCache.get(id)).isNull();
+        verify(messageRepository, times(1))
+                .updateMessage(id, newMessage.getContent(), newMessage.getUpdatedAt());
+        verify(messageRepository, never()).save(any(Message.class));
     }
 
     @Test
@@ -134,13 +481,14 @@ class MessageServiceUnitTest {
         var id = UUID.randomUUID();
         var message = MessageHelper.createMessage();
         message.setId(id);
-        when(messageRepository.findById(id)).thenReturn(Optional.empty());
+        when(messageRepository.updateMessage(eq(id), any(), any())).thenReturn(0);
 
         // Act & Assert
         assertThatThrownBy(() -> messageService.updateMessage(id, message))
                 .isInstanceOf((MessageNotFoundException.class))
                 .hasMessage("Message not found");
-        verify(messageRepository, times(1)).findById(any(UUID.class));
+        verify(messageRepository, times(1)).updateMessage(eq(id), any(), any());
+        verify(messageRepository, never()).findById(any(UUID.class));
         verify(messageRepository, never()).save(any(Message.class));
     }
 
@@ -155,54 +503,376 @@ class MessageServiceUnitTest {
         newMessage.setId(UUID.randomUUID());
         newMessage.setUsername((oldMessage.getUsername()));
         newMessage.setContent("Hello, Again!");
-        when(messageRepository.findById(id)).thenReturn((Optional.of(oldMessage)));
 
         // Act & assert
         assertThatThrownBy(() -> messageService.updateMessage(id, newMessage))
                 .isInstanceOf(MessageNotFoundException.class)
                 .hasMessage("Updated message does not have the correct ID");
-        verify(messageRepository, times(1)).findById(any(UUID.class));
+        verify(messageRepository, never()).updateMessage(any(), any(), any());
         verify(messageRepository, never()).save(any(Message.class));
     }
 
+    @Test
+    void shouldAllowUpdateMessageIfVersionMatches() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var message = MessageHelper.createMessage();
+        message.setId(id);
+        var storedMessage = MessageHelper.createMessage();
+        storedMessage.setId(id);
+        storedMessage.setVersion(4);
+        when(messageRepository.updateMessage(id, message.getContent(), message.getUpdatedAt(), 3L))
+                .thenReturn(1);
+        when(messageRepository.findById(id)).thenReturn(Optional.of(storedMessage));
+
+        // Act
+        var gottenMessage = messageService.updateMessage(id, message, 3L);
+
+        // Assert
+        assertThat(gottenMessage.getVersion()).isEqualTo(4);
+        verify(messageRepository, never()).existsById(any(UUID.class));
+    }
+
+    @Test
+    void shouldEvictCachedVersionAfterUpdate() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var cachedMessage = MessageHelper.createMessage();
+        cachedMessage.setId(id);
+        cachedMessage.setVersion(3);
+        messageCache.put(id, cachedMessage);
+        var storedMessage = MessageHelper.createMessage();
+        storedMessage.setId(id);
+        storedMessage.setVersion(4);
+        when(messageRepository.updateMessage(eq(id), any(), any(), eq(3L))).thenReturn(1);
+        when(messageRepository.findById(id)).thenReturn(Optional.of(storedMessage));
+
+        // Act
+        messageService.updateMessage(id, cachedMessage, 3L);
+        var gottenMessage = messageService.getMessage(id);
+
+        // Assert
+        assertThat(gottenMessage.getVersion()).isEqualTo(4);
+        assertThat(messageCache.get(id, Message.class)).isSameAs(storedMessage);
+    }
+
+    @Test
+    void shouldReadPastCacheWhenPinnedToPrimary() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var replicaMessage = MessageHelper.createMessage();
+        replicaMessage.setId(id);
+        replicaMessage.setVersion(3);
+        messageCache.put(id, replicaMessage);
+        var primaryMessage = MessageHelper.createMessage();
+        primaryMessage.setId(id);
+        primaryMessage.setVersion(4);
+        when(messageRepository.findById(id)).thenReturn(Optional.of(primaryMessage));
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        // Act
+        var gottenMessage = messageService.getMessage(id);
+
+        // Assert
+        assertThat(gottenMessage).isSameAs(primaryMessage);
+        assertThat(messageCache.get(id, Message.class)).isSameAs(replicaMessage);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenUpdateIfVersionIsStale() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var message = MessageHelper.createMessage();
+        message.setId(id);
+        when(messageRepository.updateMessage(eq(id), any(), any(), eq(3L))).thenReturn(0);
+        when(messageRepository.existsById(id)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> messageService.updateMessage(id, message, 3L))
+                .isInstanceOf(MessageVersionConflictException.class)
+                .hasMessage("Message was modified");
+        verify(messageRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenConditionalUpdateIfMessageIdNotFound() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var message = MessageHelper.createMessage();
+        message.setId(id);
+        when(messageRepository.updateMessage(eq(id), any(), any(), eq(3L))).thenReturn(0);
+        when(messageRepository.existsById(id)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> messageService.updateMessage(id, message, 3L))
+                .isInstanceOf(MessageNotFoundException.class)
+                .hasMessage("Message not found");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDeleteIfVersionIsStale() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(messageRepository.deleteMessage(id, 3L)).thenReturn(0);
+        when(messageRepository.existsById(id)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> messageService.deleteMessage(id, 3L))
+                .isInstanceOf(MessageVersionConflictException.class)
+                .hasMessage("Message was modified");
+        verify(messageRepository, never()).deleteMessage(id);
+    }
+
     @Test
     void shouldAllowDeleteMessage() {
         // Arrange
         var id = UUID.randomUUID();
         var message = MessageHelper.createMessage();
         message.setId(id);
-        when(messageRepository.findById(id)).thenReturn(Optional.of(message));
-        doNothing().when(messageRepository).deleteById(id);
+        messageCache.put(id, message);
+        when(messageRepository.deleteMessage(id)).thenReturn(1);
 
         // Act
         var messageRemoved = messageService.deleteMessage(id);
 
         // Assert
         assertThat(messageRemoved).isTrue();
-        verify(messageRepository, times(1)).findById(any(UUID.class));
-        verify(messageRepository, times(1)).deleteById(any(UUID.class));
+        assertThat(messageCache.get(id)).isNull();
+        verify(messageRepository, times(1)).deleteMessage(id);
+        verify(userMessageCountRepository, times(1)).removeMessage(id);
+        verify(eventPublisher, times(1)).publishEvent(new MessageDeletedEvent(id));
+        verify(messageRepository, never()).findById(any(UUID.class));
+        verify(messageRepository, never()).deleteById(any(UUID.class));
+    }
+
+    @Test
+    void shouldEvictDeletedMessageAfterCommit() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var message = MessageHelper.createMessage();
+        message.setId(id);
+        messageCache.put(id, message);
+        when(messageRepository.deleteMessage(id)).thenReturn(1);
+        var cachedAtCommit = new AtomicBoolean();
+        doAnswer(invocation -> {
+            cachedAtCommit.set(messageCache.get(id) != null);
+            return null;
+        }).when(transactionManager).commit(any());
+
+        // Act
+        messageService.deleteMessage(id);
+
+        // Assert
+        assertThat(cachedAtCommit).isTrue();
+        assertThat(messageCache.get(id)).isNull();
     }
 
     @Test
     void shouldThrowExceptionWhenDeleteIfMessageIdNotFound() {
         // Arrange
         var id = UUID.randomUUID();
-        when(messageRepository.findById(id)).thenReturn(Optional.empty());
+        when(messageRepository.deleteMessage(id)).thenReturn(0);
 
         // Act & Assert
         assertThatThrownBy(() -> messageService.deleteMessage(id))
                 .isInstanceOf(MessageNotFoundException.class)
                 .hasMessage("Message not found");
-        verify(messageRepository, times(1)).findById(any(UUID.class));
-        verify(messageRepository, never()).deleteById(any(UUID.class));
+        verify(messageRepository, times(1)).deleteMessage(id);
+        verify(messageRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void shouldRecordCreatedChangeWhenRegisterMessage() {
+        // Arrange
+        when(messageRepository.save(any(Message.class)))
+                .thenAnswer(index -> index.getArgument(0));
+
+        // Act
+        var message = messageService.registerMessage(MessageHelper.createMessage());
+
+        // Assert
+        verify(messageOutbox, times(1)).recordCreated(List.of(message));
+    }
+
+    @Test
+    void shouldRecordUpdatedChangeWithStoredMessageWhenEditMessage() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var message = MessageHelper.createMessage();
+        message.setId(id);
+        var storedMessage = MessageHelper.createFullMessage();
+        storedMessage.setId(id);
+        when(messageRepository.updateMessage(id, message.getContent(), message.getUpdatedAt(), 3L))
+                .thenReturn(1);
+        when(messageRepository.findById(id)).thenReturn(Optional.of(storedMessage));
+
+        // Act
+        messageService.updateMessage(id, message, 3L);
+
+        // Assert
+        verify(messageOutbox, times(1)).recordUpdated(storedMessage);
+    }
+
+    @Test
+    void shouldNotRecordChangeWhenUpdateIfVersionIsStale() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var message = MessageHelper.createMessage();
+        message.setId(id);
+        when(messageRepository.updateMessage(eq(id), any(), any(), eq(3L))).thenReturn(0);
+        when(messageRepository.existsById(id)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> messageService.updateMessage(id, message, 3L))
+                .isInstanceOf(MessageVersionConflictException.class);
+        verify(messageOutbox, never()).recordUpdated(any(Message.class));
+    }
+
+    @Test
+    void shouldRecordDeletedChangeWhenDeleteMessage() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(messageRepository.deleteMessage(id)).thenReturn(1);
+
+        // Act
+        messageService.deleteMessage(id);
+
+        // Assert
+        verify(messageOutbox, times(1)).recordDeleted(id);
+    }
+
+    @Test
+    void shouldListChangesWithOneExtraRow() {
+        // Arrange
+        var changes = List.of(
+                new MessageChange(6, MessageChange.Type.CREATED, UUID.randomUUID(), LocalDateTime.now(), null),
+                new MessageChange(7, MessageChange.Type.DELETED, UUID.randomUUID(), LocalDateTime.now(), null),
+                new MessageChange(9, MessageChange.Type.DELETED, UUID.randomUUID(), LocalDateTime.now(), null));
+        when(messageOutbox.changesAfter(5, 3)).thenReturn(changes);
+
+        // Act
+        var slice = messageService.listChanges(5, 2);
+
+        // Assert
+        assertThat(slice.changes()).containsExactlyElementsOf(changes.subList(0, 2));
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.nextSince()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldCapChangesSizeAtMaximumPageSize() {
+        // Arrange
+        when(messageOutbox.changesAfter(0, 101)).thenReturn(List.of());
+
+        // Act
+        var slice = messageService.listChanges(0, Integer.MAX_VALUE);
+
+        // Assert
+        assertThat(slice.size()).isEqualTo(100);
+        verify(messageOutbox, times(1)).changesAfter(0, 101);
+    }
+
+    @Test
+    void shouldKeepSinceWhenThereAreNoNewChanges() {
+        // Arrange
+        when(messageOutbox.changesAfter(5, 11)).thenReturn(List.of());
+
+        // Act
+        var slice = messageService.listChanges(5, 10);
+
+        // Assert
+        assertThat(slice.changes()).isEmpty();
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(slice.nextSince()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldExportEveryMessageAndCloseTheCursor() throws IOException {
+        // Arrange
+        var closed = new AtomicBoolean();
+        var first = MessageSummary.of(MessageHelper.createFullMessage());
+        var second = MessageSummary.of(MessageHelper.createFullMessage());
+        when(messageRepository.streamMessages())
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        var exported = new ArrayList<MessageSummary>();
+        MessageExportWriter writer = new MessageExportWriter() {
+            @Override
+            public void write(MessageSummary message) {
+                exported.add(message);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        // Act
+        var count = messageService.exportMessages(writer);
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(first, second);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void shouldListMessagesWithApproximateCountWithoutCountQuery() {
+        // Arrange
+        var pageable = PageRequest.of(0, 2);
+        var content = List.of(
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage()));
+        when(messageRepository.sliceMessages(pageable)).thenReturn(new SliceImpl<>(content, pageable, true));
+        when(approximateMessageCount.get()).thenReturn(1000L);
+
+        // Act
+        var page = messageService.listMessages(pageable, CountMode.APPROXIMATE);
+
+        // Assert
+        assertThat(page.getContent()).isEqualTo(content);
+        assertThat(page.getTotalElements()).isEqualTo(1000);
+        verify(messageRepository, never()).listMessages(any(Pageable.class));
+    }
+
+    @Test
+    void shouldNotReportFewerMessagesThanSeenWhenEstimateIsLow() {
+        // Arrange
+        var pageable = PageRequest.of(5, 2);
+        var content = List.of(
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage()));
+        when(messageRepository.sliceMessages(pageable)).thenReturn(new SliceImpl<>(content, pageable, true));
+        when(approximateMessageCount.get()).thenReturn(3L);
+
+        // Act
+        var page = messageService.listMessages(pageable, CountMode.APPROXIMATE);
+
+        // Assert
+        assertThat(page.getTotalElements()).isEqualTo(13);
+        assertThat(page.isLast()).isFalse();
+    }
+
+    @Test
+    void shouldUseExactTotalOnLastPageWithApproximateCount() {
+        // Arrange
+        var pageable = PageRequest.of(1, 2);
+        var content = List.of(MessageSummary.of(MessageHelper.createFullMessage()));
+        when(messageRepository.sliceMessages(pageable)).thenReturn(new SliceImpl<>(content, pageable, false));
+
+        // Act
+        var page = messageService.listMessages(pageable, CountMode.APPROXIMATE);
+
+        // Assert
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        verify(approximateMessageCount, never()).get();
     }
 
     @Test
     void shouldAllowListMessages() {
         // Arrange
-        Page<Message> messageList = new PageImpl<>(Arrays.asList(
-                MessageHelper.createMessage(),
-                MessageHelper.createMessage()
+        Page<MessageSummary> messageList = new PageImpl<>(Arrays.asList(
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage())
         ));
         when(messageRepository.listMessages(any(Pageable.class)))
                 .thenReturn(messageList);
@@ -217,9 +887,188 @@ class MessageServiceUnitTest {
                 .allSatisfy(message -> {
                     assertThat(message)
                             .isNotNull()
-                            .isInstanceOf(Message.class);
+                            .isInstanceOf(MessageSummary.class);
                 });
         verify(messageRepository, times(1)).listMessages(any(Pageable.class));
     }
 
+    @Test
+    void shouldAllowScrollMessagesFirstSlice() {
+        // Arrange
+        var messages = List.of(
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage()));
+        when(messageRepository.scrollMessages(any(Limit.class)))
+                .thenReturn(messages);
+
+        // Act
+        var result = messageService.scrollMessages(null, 2);
+
+        // Assert
+        assertThat(result.content()).containsExactly(messages.get(0), messages.get(1));
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(MessageCursor.decode(result.nextCursor()))
+                .isEqualTo(MessageCursor.of(messages.get(1)));
+        verify(messageRepository, times(1)).scrollMessages(Limit.of(3));
+    }
+
+    @Test
+    void shouldAllowScrollMessagesAfterCursor() {
+        // Arrange
+        var cursor = new MessageCursor(LocalDateTime.now(), UUID.randomUUID());
+        var messages = List.of(MessageSummary.of(MessageHelper.createFullMessage()));
+        when(messageRepository.scrollMessages(eq(cursor.createdAt()), eq(cursor.id()), any(Limit.class)))
+                .thenReturn(messages);
+
+        // Act
+        var result = messageService.scrollMessages(cursor, 2);
+
+        // Assert
+        assertThat(result.content()).containsExactlyElementsOf(messages);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+        verify(messageRepository, times(1))
+                .scrollMessages(cursor.createdAt(), cursor.id(), Limit.of(3));
+        verify(messageRepository, never()).listMessages(any(Pageable.class));
+    }
+
+    @Test
+    void shouldCapScrollSizeAtMaximumPageSize() {
+        // Arrange
+        when(messageRepository.scrollMessages(any(Limit.class))).thenReturn(List.of());
+
+        // Act
+        var result = messageService.scrollMessages(null, Integer.MAX_VALUE);
+
+        // Assert
+        assertThat(result.size()).isEqualTo(100);
+        verify(messageRepository, times(1)).scrollMessages(Limit.of(101));
+    }
+
+    @Test
+    void shouldCapUserScrollSizeAtMaximumPageSize() {
+        // Arrange
+        when(messageRepository.scrollUserMessages(eq("John"), any(Limit.class))).thenReturn(List.of());
+
+        // Act
+        var result = messageService.scrollUserMessages("John", null, Integer.MAX_VALUE);
+
+        // Assert
+        assertThat(result.size()).isEqualTo(100);
+        verify(messageRepository, times(1)).scrollUserMessages("John", Limit.of(101));
+    }
+
+    @Test
+    void shouldCapListSizeAtMaximumPageSize() {
+        // Arrange
+        when(messageRepository.listMessages(any(Pageable.class))).thenReturn(Page.empty());
+
+        // Act
+        messageService.listMessages(PageRequest.of(2, 5000), CountMode.EXACT);
+
+        // Assert
+        verify(messageRepository, times(1)).listMessages(PageRequest.of(2, 100));
+    }
+
+    @Test
+    void shouldAllowRegisterMessagesInChunks() {
+        // Arrange
+        var messages = List.of(
+                MessageHelper.createMessage(),
+                MessageHelper.createMessage(),
+                MessageHelper.createMessage());
+        when(messageRepository.saveAll(anyList()))
+                .thenAnswer(item -> item.getArgument(0));
+
+        // Act
+        var results = messageService.registerMessages(messages);
+
+        // Assert
+        assertThat(results)
+                .hasSize(3)
+                .allSatisfy(result -> {
+                    assertThat(result.status()).isEqualTo(BatchItemResult.Status.CREATED);
+                    assertThat(result.id()).isNotNull();
+                });
+        assertThat(results).extracting(BatchItemResult::index).containsExactly(0, 1, 2);
+        verify(messageRepository, times(1)).saveAll(List.of(messages.get(0), messages.get(1)));
+        verify(messageRepository, times(1)).saveAll(List.of(messages.get(2)));
+    }
+
+    @Test
+    void shouldRejectInvalidMessagesInBatch() {
+        // Arrange
+        var invalidMessage = Message.builder().username("John").build();
+        var validMessage = MessageHelper.createMessage();
+        when(messageRepository.saveAll(anyList()))
+                .thenAnswer(item -> item.getArgument(0));
+
+        // Act
+        var results = messageService.registerMessages(List.of(invalidMessage, validMessage));
+
+        // Assert
+        assertThat(results.get(0).status()).isEqualTo(BatchItemResult.Status.REJECTED);
+        assertThat(results.get(0).id()).isNull();
+        assertThat(results.get(0).error()).isEqualTo("Content may not be null");
+        assertThat(results.get(1).status()).isEqualTo(BatchItemResult.Status.CREATED);
+        verify(messageRepository, times(1)).saveAll(List.of(validMessage));
+    }
+
+    @Test
+    void shouldRejectOverlongMessagesInBatchBeforeSaving() {
+        // Arrange
+        var overlongMessage = Message.builder().username("John").content("a".repeat(256)).build();
+        var validMessage = MessageHelper.createMessage();
+        when(messageRepository.saveAll(anyList()))
+                .thenAnswer(item -> item.getArgument(0));
+
+        // Act
+        var results = messageService.registerMessages(List.of(overlongMessage, validMessage));
+
+        // Assert
+        assertThat(results.get(0).status()).isEqualTo(BatchItemResult.Status.REJECTED);
+        assertThat(results.get(0).error()).isEqualTo("Content may not be longer than 255 characters");
+        assertThat(results.get(1).status()).isEqualTo(BatchItemResult.Status.CREATED);
+        verify(messageRepository, times(1)).saveAll(List.of(validMessage));
+    }
+
+    @Test
+    void shouldReportFailedChunkInBatch() {
+        // Arrange
+        var messages = List.of(
+                MessageHelper.createMessage(),
+                MessageHelper.createMessage(),
+                MessageHelper.createMessage());
+        when(messageRepository.saveAll(anyList()))
+                .thenThrow(new DuplicateKeyException("duplicate key"))
+                .thenThrow(new DuplicateKeyException("duplicate key"))
+                .thenAnswer(item -> item.getArgument(0));
+
+        // Act
+        var results = messageService.registerMessages(messages);
+
+        // Assert
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(
+                BatchItemResult.Status.FAILED,
+                BatchItemResult.Status.FAILED,
+                BatchItemResult.Status.CREATED);
+        // The failed chunk is retried once in case its user count row was created concurrently
+        verify(messageRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldDelegateLikeMessageToLikeCounter() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(likeCounter.increment(id)).thenReturn(true);
+
+        // Act
+        var applied = messageService.likeMessage(id);
+
+        // Assert
+        assertThat(applied).isTrue();
+        verify(likeCounter, times(1)).increment(id);
+    }
 }
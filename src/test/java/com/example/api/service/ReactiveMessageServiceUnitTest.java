@@ -0,0 +1,343 @@
+package com.example.api.service;
+
+import com.example.api.config.MessageBatchProperties;
+import com.example.api.config.MessageLikeProperties;
+import com.example.api.config.MessagePageProperties;
+import com.example.api.dto.BatchItemResult;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSummary;
+import com.example.api.exception.MessageNotFoundException;
+import com.example.api.id.UuidV7Generator;
+import com.example.api.likes.LikeCounter;
+import com.example.api.model.Message;
+import com.example.api.outbox.ReactiveMessageOutbox;
+import com.example.api.repository.ReactiveMessageRepository;
+import com.example.api.repository.ReactiveUserMessageCountRepository;
+import com.example.api.utils.MessageHelper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReactiveMessageServiceUnitTest {
+
+    private ReactiveMessageService messageService;
+
+    private Cache messageCache;
+
+    @Mock
+    private ReactiveMessageRepository messageRepository;
+
+    @Mock
+    private R2dbcEntityTemplate entityTemplate;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private LikeCounter likeCounter;
+
+    @Mock
+    private ReactiveUserMessageCountRepository userMessageCountRepository;
+
+    @Mock
+    private ReactiveMessageOutbox messageOutbox;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        messageCache = new ConcurrentMapCache("messages");
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userMessageCountRepository.addMessages(anyString(), anyLong())).thenReturn(Mono.just(1));
+        when(userMessageCountRepository.removeMessage(any(UUID.class))).thenReturn(Mono.just(1));
+        when(messageOutbox.recordCreated(anyList())).thenReturn(Mono.empty());
+        when(messageOutbox.recordUpdated(any(Message.class))).thenReturn(Mono.empty());
+        when(messageOutbox.recordDeleted(any(UUID.class))).thenReturn(Mono.empty());
+        messageService = new ReactiveMessageServiceImpl(
+                messageRepository,
+                entityTemplate,
+                transactionalOperator,
+                new UuidV7Generator(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new MessageBatchProperties(2, 10),
+                new MessageLikeProperties(false, Duration.ofSeconds(1)),
+                new MessagePageProperties(100),
+                messageCache,
+                likeCounter,
+                userMessageCountRepository,
+                messageOutbox);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldAllowRegisterMessage() {
+        // Arrange
+        when(entityTemplate.insert(any(Message.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(messageService.registerMessage(MessageHelper.createMessage()))
+                .assertNext(message -> {
+                    assertThat(message.getId()).isNotNull();
+                    assertThat(messageCache.get(message.getId())).isNotNull();
+                })
+                .verifyComplete();
+        verify(userMessageCountRepository, times(1)).addMessages("John", 1);
+        verify(userMessageCountRepository, never()).createCount(anyString(), anyLong());
+    }
+
+    @Test
+    void shouldCreateUserCountWhenRegisterFirstMessageOfUser() {
+        // Arrange
+        when(entityTemplate.insert(any(Message.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(userMessageCountRepository.addMessages("John", 1)).thenReturn(Mono.just(0));
+        when(userMessageCountRepository.createCount("John", 1)).thenReturn(Mono.just(1));
+
+        // Act & Assert
+        StepVerifier.create(messageService.registerMessage(MessageHelper.createMessage()))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(userMessageCountRepository, times(1)).createCount("John", 1);
+    }
+
+    @Test
+    void shouldRetryRegisterWhenUserCountIsCreatedConcurrently() {
+        // Arrange
+        when(entityTemplate.insert(any(Message.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(userMessageCountRepository.addMessages("John", 1))
+                .thenReturn(Mono.just(0))
+                .thenReturn(Mono.just(1));
+        when(userMessageCountRepository.createCount("John", 1))
+                .thenReturn(Mono.error(new DuplicateKeyException("duplicate")));
+
+        // Act & Assert
+        StepVerifier.create(messageService.registerMessage(MessageHelper.createMessage()))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(entityTemplate, times(2)).insert(any(Message.class));
+    }
+
+    @Test
+    void shouldServeCachedMessageWithoutQueryingRepository() {
+        // Arrange
+        var message = MessageHelper.createFullMessage();
+        when(messageRepository.findById(message.getId())).thenReturn(Mono.just(message));
+
+        // Act
+        messageService.getMessage(message.getId()).block();
+        var cached = messageService.getMessage(message.getId()).block();
+
+        // Assert
+        assertThat(cached).isEqualTo(message);
+        verify(messageRepository, times(1)).findById(message.getId());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenGetIfMessageIdNotFound() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(messageRepository.findById(id)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(messageService.getMessage(id))
+                .expectErrorMatches(error -> error instanceof MessageNotFoundException
+                        && error.getMessage().equals("Message not found"))
+                .verify();
+        StepVerifier.create(messageService.getMessage(id))
+                .expectError(MessageNotFoundException.class)
+                .verify();
+        verify(messageRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void shouldRecordCreatedChangeWhenRegisterMessage() {
+        // Arrange
+        when(entityTemplate.insert(any(Message.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(messageService.registerMessage(MessageHelper.createMessage()))
+                .assertNext(message -> verify(messageOutbox, times(1)).recordCreated(List.of(message)))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldAllowUpdateMessageAndRecordChange() {
+        // Arrange
+        var message = MessageHelper.createFullMessage();
+        var storedMessage = MessageHelper.createFullMessage();
+        storedMessage.setId(message.getId());
+        messageCache.put(message.getId(), message);
+        when(messageRepository.updateMessage(message.getId(), message.getContent(), message.getUpdatedAt()))
+                .thenReturn(Mono.just(1));
+        when(messageRepository.findById(message.getId())).thenReturn(Mono.just(storedMessage));
+
+        // Act & Assert
+        StepVerifier.create(messageService.updateMessage(message.getId(), message))
+                .expectNext(storedMessage)
+                .verifyComplete();
+        verify(messageOutbox, times(1)).recordUpdated(storedMessage);
+        verify(transactionalOperator, times(1)).transactional(ArgumentMatchers.<Mono<Object>>any());
+        assertThat(messageCache.get(message.getId())).isNull();
+    }
+
+    @Test
+    void shouldRecordDeletedChangeWhenDeleteMessage() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(messageRepository.deleteMessage(id)).thenReturn(Mono.just(1));
+
+        // Act & Assert
+        StepVerifier.create(messageService.deleteMessage(id))
+                .expectNext(true)
+                .verifyComplete();
+        verify(messageOutbox, times(1)).recordDeleted(id);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenUpdateIfMessageIdIsNotEqual() {
+        // Arrange
+        var message = MessageHelper.createFullMessage();
+
+        // Act & Assert
+        StepVerifier.create(messageService.updateMessage(UUID.randomUUID(), message))
+                .expectErrorMessage("Updated message does not have the correct ID")
+                .verify();
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDeleteIfMessageIdNotFound() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(messageRepository.deleteMessage(id)).thenReturn(Mono.just(0));
+
+        // Act & Assert
+        StepVerifier.create(messageService.deleteMessage(id))
+                .expectErrorMessage("Message not found")
+                .verify();
+        verify(transactionalOperator, times(1)).transactional(ArgumentMatchers.<Mono<Object>>any());
+    }
+
+    @Test
+    void shouldAllowLikeMessage() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var likedMessage = MessageHelper.createFullMessage();
+        when(messageRepository.addLikes(id, 1)).thenReturn(Mono.just(1));
+        when(messageRepository.findById(id)).thenReturn(Mono.just(likedMessage));
+
+        // Act & Assert
+        StepVerifier.create(messageService.likeMessage(id))
+                .expectNext(true)
+                .verifyComplete();
+        verifyNoInteractions(likeCounter);
+        verify(messageOutbox, times(1)).recordUpdated(likedMessage);
+        verify(transactionalOperator, times(1)).transactional(ArgumentMatchers.<Mono<Object>>any());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLikeIfMessageIdNotFound() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(messageRepository.addLikes(id, 1)).thenReturn(Mono.just(0));
+
+        // Act & Assert
+        StepVerifier.create(messageService.likeMessage(id))
+                .expectErrorMessage("Message not found")
+                .verify();
+        verify(messageOutbox, never()).recordUpdated(any(Message.class));
+    }
+
+    @Test
+    void shouldAllowScrollMessagesFirstSlice() {
+        // Arrange
+        var messages = List.of(
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage()),
+                MessageSummary.of(MessageHelper.createFullMessage()));
+        when(messageRepository.scrollMessages(3)).thenReturn(Flux.fromIterable(messages));
+
+        // Act & Assert
+        StepVerifier.create(messageService.scrollMessages(null, 2))
+                .assertNext(slice -> {
+                    assertThat(slice.content()).containsExactly(messages.get(0), messages.get(1));
+                    assertThat(slice.hasNext()).isTrue();
+                    assertThat(MessageCursor.decode(slice.nextCursor())).isEqualTo(MessageCursor.of(messages.get(1)));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldAllowListMessages() {
+        // Arrange
+        var summary = MessageSummary.of(MessageHelper.createFullMessage());
+        when(messageRepository.listMessages(2, 2)).thenReturn(Flux.just(summary, summary));
+        when(messageRepository.count()).thenReturn(Mono.just(5L));
+
+        // Act & Assert
+        StepVerifier.create(messageService.listMessages(1, 2))
+                .assertNext(page -> {
+                    assertThat(page.content()).hasSize(2);
+                    assertThat(page.totalPages()).isEqualTo(3);
+                    assertThat(page.last()).isFalse();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldMarkFailedChunkWithoutFailingOtherChunks() {
+        // Arrange
+        var messages = List.of(
+                MessageHelper.createMessage(),
+                MessageHelper.createMessage(),
+                Message.builder().username("").content("Hello").build(),
+                MessageHelper.createMessage());
+        when(entityTemplate.insert(any(Message.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate")));
+
+        // Act & Assert
+        StepVerifier.create(messageService.registerMessages(messages))
+                .assertNext(results -> assertThat(results)
+                        .extracting(BatchItemResult::status)
+                        .containsExactly(
+                                BatchItemResult.Status.CREATED,
+                                BatchItemResult.Status.CREATED,
+                                BatchItemResult.Status.REJECTED,
+                                BatchItemResult.Status.FAILED))
+                .verifyComplete();
+    }
+}
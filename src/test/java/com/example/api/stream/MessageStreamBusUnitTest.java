@@ -0,0 +1,243 @@
+package com.example.api.stream;
+
+import com.example.api.config.MessageStreamProperties;
+import com.example.api.config.MessageStreamProperties.OverflowPolicy;
+import com.example.api.dto.MessageCursor;
+import com.example.api.dto.MessageSummary;
+import com.example.api.event.MessageCreatedEvent;
+import com.example.api.service.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MessageStreamBusUnitTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private Instant now = Instant.parse("2023-01-15T00:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private SseEmitter emitter;
+
+    @Mock
+    private Clock clock;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(clock.instant()).thenAnswer(invocation -> now);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void shouldSendCreatedMessageToSubscriber() throws IOException {
+        // Arrange
+        var bus = newBus(256, OverflowPolicy.DISCONNECT);
+        var message = summary(1);
+        bus.subscribe(emitter, null);
+        runTasks();
+
+        // Act
+        bus.onMessageCreated(new MessageCreatedEvent(message));
+        runTasks();
+
+        // Assert
+        assertThat(sentMessages()).containsExactly(message);
+        assertThat(bus.subscriberCount()).isEqualTo(1);
+        verify(messageService, never()).listMessagesAfter(any(), anyInt());
+    }
+
+    @Test
+    void shouldReplayMessagesAfterLastEventIdWithoutDuplicates() throws IOException {
+        // Arrange
+        var bus = newBus(256, OverflowPolicy.DISCONNECT);
+        var cursor = MessageCursor.of(summary(0));
+        var replayed = summary(1);
+        var created = summary(2);
+        when(messageService.listMessagesAfter(eq(cursor), anyInt()))
+                .thenReturn(List.of(replayed));
+
+        // Act
+        bus.subscribe(emitter, cursor);
+        bus.onMessageCreated(new MessageCreatedEvent(replayed));
+        bus.onMessageCreated(new MessageCreatedEvent(created));
+        runTasks();
+
+        // Assert
+        assertThat(sentMessages()).containsExactly(replayed, created);
+    }
+
+    @Test
+    void shouldDisconnectSlowSubscriberWhenBufferIsFull() {
+        // Arrange
+        var bus = newBus(2, OverflowPolicy.DISCONNECT);
+        bus.subscribe(emitter, null);
+
+        // Act
+        bus.onMessageCreated(new MessageCreatedEvent(summary(1)));
+        bus.onMessageCreated(new MessageCreatedEvent(summary(2)));
+        bus.onMessageCreated(new MessageCreatedEvent(summary(3)));
+
+        // Assert
+        verify(emitter, times(1)).complete();
+        assertThat(bus.subscriberCount()).isZero();
+        assertThat(meterRegistry.get("message.stream.overflow").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropOldestMessageWhenBufferIsFull() throws IOException {
+        // Arrange
+        var bus = newBus(2, OverflowPolicy.DROP_OLDEST);
+        bus.subscribe(emitter, null);
+
+        // Act
+        bus.onMessageCreated(new MessageCreatedEvent(summary(1)));
+        bus.onMessageCreated(new MessageCreatedEvent(summary(2)));
+        bus.onMessageCreated(new MessageCreatedEvent(summary(3)));
+        runTasks();
+
+        // Assert
+        assertThat(sentMessages()).containsExactly(summary(2), summary(3));
+        assertThat(bus.subscriberCount()).isEqualTo(1);
+        verify(emitter, never()).complete();
+    }
+
+    @Test
+    void shouldUnsubscribeWhenSendFails() throws IOException {
+        // Arrange
+        var bus = newBus(256, OverflowPolicy.DISCONNECT);
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        bus.subscribe(emitter, null);
+        runTasks();
+
+        // Act
+        bus.onMessageCreated(new MessageCreatedEvent(summary(1)));
+        runTasks();
+
+        // Assert
+        assertThat(bus.subscriberCount()).isZero();
+    }
+
+    @Test
+    void shouldDisconnectSubscriberWhoseSendStalls() throws IOException {
+        // Arrange
+        var bus = newBus(256, OverflowPolicy.DISCONNECT);
+        bus.subscribe(emitter, null);
+        runTasks();
+        doAnswer(invocation -> {
+            // The client stops reading while this send blocks, and another message arrives meanwhile
+            now = now.plusSeconds(11);
+            bus.onMessageCreated(new MessageCreatedEvent(summary(2)));
+            assertThat(bus.subscriberCount()).isZero();
+            verify(emitter, never()).complete();
+            return null;
+        }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        // Act
+        bus.onMessageCreated(new MessageCreatedEvent(summary(1)));
+        runTasks();
+
+        // Assert
+        verify(emitter, times(1)).complete();
+        assertThat(meterRegistry.get("message.stream.stalled").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepSubscriberWhoseSendIsWithinTimeout() throws IOException {
+        // Arrange
+        var bus = newBus(256, OverflowPolicy.DISCONNECT);
+        bus.subscribe(emitter, null);
+        runTasks();
+        doAnswer(invocation -> {
+            now = now.plusSeconds(5);
+            bus.onMessageCreated(new MessageCreatedEvent(summary(2)));
+            return null;
+        }).doNothing().when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        // Act
+        bus.onMessageCreated(new MessageCreatedEvent(summary(1)));
+        runTasks();
+
+        // Assert
+        assertThat(bus.subscriberCount()).isEqualTo(1);
+        assertThat(sentMessages()).containsExactly(summary(1), summary(2));
+        verify(emitter, never()).complete();
+        assertThat(meterRegistry.get("message.stream.stalled").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldCompleteStreamsWhenContextCloses() {
+        // Arrange
+        var bus = newBus(256, OverflowPolicy.DISCONNECT);
+        bus.subscribe(emitter, null);
+        runTasks();
+
+        // Act
+        bus.completeSubscribers();
+
+        // Assert
+        verify(emitter, times(1)).complete();
+        assertThat(bus.subscriberCount()).isZero();
+    }
+
+    private MessageStreamBus newBus(int bufferSize, OverflowPolicy overflowPolicy) {
+        var properties = new MessageStreamProperties(
+                bufferSize, overflowPolicy, Duration.ofMinutes(30), 1000, 1, Duration.ofSeconds(10));
+        return new MessageStreamBus(messageService, properties, meterRegistry, tasks::add, clock);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private List<Object> sentMessages() throws IOException {
+        var captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeast(0)).send(captor.capture());
+        return captor.getAllValues().stream()
+                .flatMap(event -> event.build().stream())
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(MessageSummary.class::isInstance)
+                .toList();
+    }
+
+    private static MessageSummary summary(int minute) {
+        var createdAt = LocalDateTime.of(2023, 1, 15, 0, minute);
+        return new MessageSummary(
+                new UUID(0, minute), "adam", "Message " + minute, createdAt, createdAt, 0);
+    }
+}
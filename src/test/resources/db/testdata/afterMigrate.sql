@@ -4,3 +4,10 @@ VALUES
     ('cf9f5083-c5fb-4061-91cf-cd80eec30c89', 'John', 'Hello, World! 01', '2023-01-15 00:01:00.1000', 0),
     ('450fb656-3b0a-4044-9976-06e04d2df74e', 'Adam', 'Hello, World! 02', '2023-01-15 00:02:00.1000', 0),
     ('f4158f3e-7d31-45e9-84bd-19fdea672af3', 'Eva', 'Hello, World! 03', '2023-01-15 00:03:00.1000', 0);
+
+INSERT INTO USER_MESSAGE_COUNT
+    (USERNAME, MESSAGE_COUNT)
+VALUES
+    ('John', 1),
+    ('Adam', 1),
+    ('Eva', 1);